@@ -0,0 +1,59 @@
+package com.trehubenko.buffered;
+
+/**
+ * Picks the buffer capacity of a buffered stream between {@code minCapacity} and {@code maxCapacity}.
+ * Every {@value #WINDOW} fills or flushes it doubles the capacity when the buffer kept coming back full
+ * or bulk requests were at least half of it, and halves it when the buffer stayed mostly empty and
+ * requests were small.
+ */
+final class AdaptiveCapacity {
+
+    private static final int WINDOW = 8;
+    private static final double GROW_FILL_RATIO = 0.9;
+    private static final double SHRINK_FILL_RATIO = 0.25;
+    private final int minCapacity;
+    private final int maxCapacity;
+    private long requestedBytes;
+    private int requests;
+    private long usedBytes;
+    private long offeredBytes;
+    private int boundaries;
+
+    AdaptiveCapacity(int minCapacity, int maxCapacity) {
+        if (minCapacity <= 0 | maxCapacity < minCapacity) {
+            throw new RuntimeException("Capacity bounds must be 0 < min <= max, min = " + minCapacity + ", max = " + maxCapacity);
+        }
+        this.minCapacity = minCapacity;
+        this.maxCapacity = maxCapacity;
+    }
+
+    int initialCapacity(int preferredCapacity) {
+        return Math.min(Math.max(preferredCapacity, minCapacity), maxCapacity);
+    }
+
+    void onRequest(int length) {
+        requestedBytes += length;
+        requests++;
+    }
+
+    int onBoundary(int capacity, int used) {
+        usedBytes += used;
+        offeredBytes += capacity;
+        if (++boundaries < WINDOW) {
+            return capacity;
+        }
+
+        double fillRatio = (double) usedBytes / offeredBytes;
+        long averageRequest = requests == 0 ? 0 : requestedBytes / requests;
+        requestedBytes = usedBytes = offeredBytes = 0;
+        requests = boundaries = 0;
+
+        if ((fillRatio >= GROW_FILL_RATIO || averageRequest * 2 >= capacity) && capacity < maxCapacity) {
+            return (int) Math.min(capacity * 2L, maxCapacity);
+        }
+        if (fillRatio < SHRINK_FILL_RATIO && averageRequest * 8 < capacity && capacity > minCapacity) {
+            return Math.max(capacity / 2, minCapacity);
+        }
+        return capacity;
+    }
+}
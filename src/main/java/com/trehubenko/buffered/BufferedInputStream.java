@@ -1,23 +1,89 @@
 package com.trehubenko.buffered;
 
+import com.trehubenko.metrics.StreamMetrics;
+import com.trehubenko.pool.BufferPool;
+import com.trehubenko.primitive.Primitives;
+
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
 
-public class BufferedInputStream extends InputStream {
+public class BufferedInputStream extends InputStream implements ReadableByteChannel {
 
     private static final int DEFAULT_CAPACITY = 8 * 1024;
     private final InputStream inputStream;
+    private final ScatteringByteChannel channel;
+    private final BufferPool bufferPool;
+    private final AdaptiveCapacity adaptiveCapacity;
     private int position;
     private int count;
     private byte[] buffer;
+    private byte[] scratch;
+    private byte[] lineBuffer;
+    private Checksum checksum;
+    private StreamMetrics metrics = StreamMetrics.NOOP;
+    private int accounted;
+    private int markPosition = -1;
+    private int markLimit;
 
     public BufferedInputStream(InputStream inputStream) {
         this(DEFAULT_CAPACITY, inputStream);
     }
 
     public BufferedInputStream(int initialCapacity, InputStream inputStream) {
-        buffer = new byte[initialCapacity];
+        this(initialCapacity, inputStream, BufferPool.UNPOOLED);
+    }
+
+    public BufferedInputStream(InputStream inputStream, BufferPool bufferPool) {
+        this(DEFAULT_CAPACITY, inputStream, bufferPool);
+    }
+
+    public BufferedInputStream(int initialCapacity, InputStream inputStream, BufferPool bufferPool) {
+        this(initialCapacity, inputStream, bufferPool, null);
+    }
+
+    public BufferedInputStream(int minCapacity, int maxCapacity, InputStream inputStream) {
+        this(minCapacity, maxCapacity, inputStream, BufferPool.UNPOOLED);
+    }
+
+    public BufferedInputStream(int minCapacity, int maxCapacity, InputStream inputStream, BufferPool bufferPool) {
+        this(new AdaptiveCapacity(minCapacity, maxCapacity), inputStream, bufferPool);
+    }
+
+    public BufferedInputStream(int initialCapacity, ScatteringByteChannel channel) {
+        this(initialCapacity, Channels.newInputStream(channel), channel, BufferPool.UNPOOLED, null);
+    }
+
+    private BufferedInputStream(AdaptiveCapacity adaptiveCapacity, InputStream inputStream, BufferPool bufferPool) {
+        this(adaptiveCapacity.initialCapacity(DEFAULT_CAPACITY), inputStream, bufferPool, adaptiveCapacity);
+    }
+
+    private BufferedInputStream(int initialCapacity, InputStream inputStream, BufferPool bufferPool, AdaptiveCapacity adaptiveCapacity) {
+        this(initialCapacity, inputStream, inputStream instanceof FileInputStream fileInputStream ? fileInputStream.getChannel() : null,
+                bufferPool, adaptiveCapacity);
+    }
+
+    private BufferedInputStream(int initialCapacity, InputStream inputStream, ScatteringByteChannel channel,
+                                BufferPool bufferPool, AdaptiveCapacity adaptiveCapacity) {
+        this.buffer = bufferPool.acquire(initialCapacity);
+        this.bufferPool = bufferPool;
+        this.adaptiveCapacity = adaptiveCapacity;
         this.inputStream = inputStream;
+        this.channel = channel;
     }
 
     @Override
@@ -29,7 +95,7 @@ public class BufferedInputStream extends InputStream {
                 return -1;
             }
         }
-        return buffer[position++];
+        return buffer[position++] & 0xFF;
     }
 
     @Override
@@ -47,6 +113,9 @@ public class BufferedInputStream extends InputStream {
         if (off == b.length | len == 0) {
             return 0;
         }
+        if (adaptiveCapacity != null) {
+            adaptiveCapacity.onRequest(len);
+        }
 
         int readBytes;
 
@@ -61,9 +130,456 @@ public class BufferedInputStream extends InputStream {
         return readBytes;
     }
 
+    @Override
+    public byte[] readAllBytes() throws IOException {
+        return readNBytes(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Copies the buffered bytes and reads the rest with one {@code readNBytes} call of the wrapped stream.
+     */
+    @Override
+    public byte[] readNBytes(int len) throws IOException {
+        ensureIsOpen();
+        if (len < 0) {
+            throw new IllegalArgumentException("len < 0");
+        }
+        if (markPosition >= 0) {
+            return super.readNBytes(len);
+        }
+        int buffered = Math.min(len, count - position);
+        byte[] bufferedBytes = Arrays.copyOfRange(buffer, position, position + buffered);
+        position += buffered;
+        if (buffered == len) {
+            return bufferedBytes;
+        }
+
+        long start = startTime();
+        byte[] rest = inputStream.readNBytes(len - buffered);
+        if (rest.length > 0) {
+            metrics.bypassRead(rest.length, elapsed(start));
+        }
+        accountConsumed();
+        account(rest, 0, rest.length);
+        if (buffered == 0) {
+            return rest;
+        }
+        byte[] bytes = Arrays.copyOf(bufferedBytes, buffered + rest.length);
+        System.arraycopy(rest, 0, bytes, buffered, rest.length);
+        return bytes;
+    }
+
+    /**
+     * Skips buffered bytes first, the rest is skipped by the wrapped stream, which seeks when it is
+     * backed by a file or a seekable channel. With a checksum enabled the skipped bytes are read and hashed,
+     * with a mark set they are read into the buffer.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        ensureIsOpen();
+        if (n <= 0) {
+            return 0;
+        }
+        long skipped = Math.min(n, count - position);
+        position += (int) skipped;
+        if (skipped == n) {
+            return skipped;
+        }
+
+        if (checksum != null || markPosition >= 0) {
+            while (skipped < n) {
+                fillBuffer();
+                if (position >= count) {
+                    break;
+                }
+                int bytesToSkip = (int) Math.min(n - skipped, count - position);
+                position += bytesToSkip;
+                skipped += bytesToSkip;
+            }
+            return skipped;
+        }
+        return skipped + inputStream.skip(n - skipped);
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureIsOpen();
+        int buffered = count - position;
+        return buffered + Math.min(inputStream.available(), Integer.MAX_VALUE - buffered);
+    }
+
+    /**
+     * Writes the buffered bytes and hands the rest over to the wrapped stream, a file is copied to a
+     * {@link FileOutputStream} with {@link FileChannel#transferTo}. With a checksum enabled or a mark set
+     * the rest is copied through the buffer.
+     */
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        ensureIsOpen();
+        long transferred = 0;
+        do {
+            if (count > position) {
+                out.write(buffer, position, count - position);
+                transferred += count - position;
+                position = count;
+            }
+            if (checksum == null && markPosition < 0) {
+                return transferred + transferRest(out);
+            }
+            fillBuffer();
+        } while (position < count);
+        return transferred;
+    }
+
+    public short readShort() throws IOException {
+        if (!require(Short.BYTES)) {
+            return Primitives.getShort(readFully(Short.BYTES), 0);
+        }
+        short value = Primitives.getShort(buffer, position);
+        position += Short.BYTES;
+        return value;
+    }
+
+    public short readShortLE() throws IOException {
+        if (!require(Short.BYTES)) {
+            return Primitives.getShortLE(readFully(Short.BYTES), 0);
+        }
+        short value = Primitives.getShortLE(buffer, position);
+        position += Short.BYTES;
+        return value;
+    }
+
+    public int readInt() throws IOException {
+        if (!require(Integer.BYTES)) {
+            return Primitives.getInt(readFully(Integer.BYTES), 0);
+        }
+        int value = Primitives.getInt(buffer, position);
+        position += Integer.BYTES;
+        return value;
+    }
+
+    public int readIntLE() throws IOException {
+        if (!require(Integer.BYTES)) {
+            return Primitives.getIntLE(readFully(Integer.BYTES), 0);
+        }
+        int value = Primitives.getIntLE(buffer, position);
+        position += Integer.BYTES;
+        return value;
+    }
+
+    public long readLong() throws IOException {
+        if (!require(Long.BYTES)) {
+            return Primitives.getLong(readFully(Long.BYTES), 0);
+        }
+        long value = Primitives.getLong(buffer, position);
+        position += Long.BYTES;
+        return value;
+    }
+
+    public long readLongLE() throws IOException {
+        if (!require(Long.BYTES)) {
+            return Primitives.getLongLE(readFully(Long.BYTES), 0);
+        }
+        long value = Primitives.getLongLE(buffer, position);
+        position += Long.BYTES;
+        return value;
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public float readFloatLE() throws IOException {
+        return Float.intBitsToFloat(readIntLE());
+    }
+
+    public double readDoubleLE() throws IOException {
+        return Double.longBitsToDouble(readLongLE());
+    }
+
+    public int readVarInt() throws IOException {
+        return Primitives.toVarInt(readVarLong());
+    }
+
+    public int readSignedVarInt() throws IOException {
+        return Primitives.decodeZigZag(Primitives.toVarInt(readVarLong()));
+    }
+
+    public long readSignedVarLong() throws IOException {
+        return Primitives.decodeZigZag(readVarLong());
+    }
+
+    public long readVarLong() throws IOException {
+        ensureIsOpen();
+        int length;
+        while ((length = Primitives.varLongLength(buffer, position, count)) < 0) {
+            if (!fillMore(0)) {
+                return readVarLongByteByByte();
+            }
+        }
+        long value = Primitives.getVarLong(buffer, position);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Returns the distance from the current position to the next {@code value}. The buffer is
+     * compacted and filled further while searching, -1 is returned when {@code value} is not
+     * found before the end of the stream or within the buffer capacity.
+     */
+    public int indexOf(byte value) throws IOException {
+        ensureIsOpen();
+        int scanned = position;
+        while (true) {
+            int index = Primitives.indexOf(buffer, scanned, count, value);
+            if (index >= 0) {
+                return index - position;
+            }
+            scanned = count - position;
+            if (readMore(0) <= 0) {
+                return -1;
+            }
+            scanned += position;
+        }
+    }
+
+    /**
+     * Returns the next byte without consuming it, -1 at the end of the stream.
+     */
+    public int peek() throws IOException {
+        ensureIsOpen();
+        if (position >= count) {
+            fillBuffer();
+            if (position >= count) {
+                return -1;
+            }
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    /**
+     * Returns a read-only view of the next {@code n} bytes without consuming them, fewer only at the
+     * end of the stream. The buffer is compacted, refilled and grown as needed. The view is valid until
+     * the next call on this stream.
+     */
+    public ByteBuffer peek(int n) throws IOException {
+        ensureIsOpen();
+        if (n < 0) {
+            throw new IllegalArgumentException("n < 0");
+        }
+        while (count - position < n) {
+            if (readMore(n) < 0) {
+                break;
+            }
+        }
+        return ByteBuffer.wrap(buffer, position, Math.min(n, count - position)).slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * Keeps the bytes read from here on in the buffer, growing it up to {@code readLimit} bytes. While the
+     * mark is valid reads do not bypass the buffer.
+     */
+    @Override
+    public void mark(int readLimit) {
+        markPosition = position;
+        markLimit = Math.max(readLimit, 0);
+    }
+
+    @Override
+    public void reset() throws IOException {
+        ensureIsOpen();
+        if (markPosition < 0) {
+            throw new IOException("Resetting to invalid mark");
+        }
+        position = markPosition;
+    }
+
+    /**
+     * Copies the bytes before the next {@code delimiter} to {@code outputStream} and skips the delimiter.
+     * Returns the number of bytes copied, or -1 at the end of the stream.
+     */
+    public long readUntil(byte delimiter, OutputStream outputStream) throws IOException {
+        ensureIsOpen();
+        long copied = 0;
+        while (true) {
+            if (position >= count) {
+                fillBuffer();
+                if (position >= count) {
+                    return copied == 0 ? -1 : copied;
+                }
+            }
+            int index = Primitives.indexOf(buffer, position, count, delimiter);
+            int end = index >= 0 ? index : count;
+            if (end > position) {
+                outputStream.write(buffer, position, end - position);
+                copied += end - position;
+            }
+            if (index >= 0) {
+                position = index + 1;
+                return copied;
+            }
+            position = count;
+        }
+    }
+
+    public String readLine() throws IOException {
+        return readLine(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads bytes up to {@code '\n'} and decodes them without the line terminator ({@code "\n"} or
+     * {@code "\r\n"}). Returns null at the end of the stream.
+     */
+    public String readLine(Charset charset) throws IOException {
+        ensureIsOpen();
+        if (position >= count) {
+            fillBuffer();
+            if (position >= count) {
+                return null;
+            }
+        }
+
+        int index = Primitives.indexOf(buffer, position, count, (byte) '\n');
+        if (index >= 0) {
+            String line = decodeLine(buffer, position, index, charset);
+            position = index + 1;
+            return line;
+        }
+
+        int lineLength = 0;
+        while (true) {
+            int end = index >= 0 ? index : count;
+            lineLength = appendToLine(lineLength, end);
+            if (index >= 0) {
+                position = index + 1;
+                return decodeLine(lineBuffer, 0, lineLength, charset);
+            }
+            fillBuffer();
+            if (position >= count) {
+                return decodeLine(lineBuffer, 0, lineLength, charset);
+            }
+            index = Primitives.indexOf(buffer, position, count, (byte) '\n');
+        }
+    }
+
+    public void enableChecksum() {
+        enableChecksum(new CRC32C());
+    }
+
+    /**
+     * Updates {@code checksum} with every byte consumed from now on. Consumed bytes are hashed in
+     * blocks when the buffer is refilled or the value is requested, bytes read past the buffer are
+     * hashed in the caller's array.
+     */
+    public void enableChecksum(Checksum checksum) {
+        accountConsumed();
+        this.checksum = checksum;
+    }
+
+    public long getChecksumValue() {
+        if (checksum == null) {
+            throw new RuntimeException("Checksum is not enabled");
+        }
+        accountConsumed();
+        return checksum.getValue();
+    }
+
+    public void setMetrics(StreamMetrics metrics) {
+        accountConsumed();
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Copies buffered bytes into {@code dst} in one bulk operation. A heap buffer is filled like an
+     * array, a direct buffer that is not smaller than the buffer is read straight from the channel
+     * of the wrapped stream when it has one.
+     */
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureIsOpen();
+        int length = dst.remaining();
+        if (length == 0) {
+            return 0;
+        }
+        if (dst.hasArray()) {
+            int readBytes = read(dst.array(), dst.arrayOffset() + dst.position(), length);
+            if (readBytes > 0) {
+                dst.position(dst.position() + readBytes);
+            }
+            return readBytes;
+        }
+
+        if (position >= count) {
+            if (channel != null && markPosition < 0 && length >= buffer.length) {
+                return (int) read(new ByteBuffer[]{dst});
+            }
+            fillBuffer();
+            if (position >= count) {
+                return -1;
+            }
+        }
+        int readBytes = Math.min(length, count - position);
+        dst.put(buffer, position, readBytes);
+        position += readBytes;
+        return readBytes;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    /**
+     * Scattering read, buffered bytes are copied first, the rest is read with one
+     * {@code read(ByteBuffer[])} when the source is a channel or a {@link FileInputStream}.
+     */
+    public long read(ByteBuffer[] dsts) throws IOException {
+        ensureIsOpen();
+        long readBytes = drainBufferTo(dsts);
+        if (!hasRemaining(dsts)) {
+            return readBytes;
+        }
+
+        long resultInputRead;
+        if (channel != null && markPosition < 0) {
+            accountConsumed();
+            int[] startPositions = checksum == null ? null : positions(dsts);
+            long start = startTime();
+            resultInputRead = channel.read(dsts);
+            if (resultInputRead > 0) {
+                metrics.bypassRead((int) resultInputRead, elapsed(start));
+                metrics.bytesRead(resultInputRead);
+            }
+            if (startPositions != null) {
+                updateChecksum(dsts, startPositions);
+            }
+        } else {
+            fillBuffer();
+            resultInputRead = position >= count ? -1 : drainBufferTo(dsts);
+        }
+
+        if (resultInputRead <= 0) {
+            return readBytes == 0 ? resultInputRead : readBytes;
+        }
+        return readBytes + resultInputRead;
+    }
+
     @Override
     public void close() throws IOException {
-        buffer = null;
+        if (buffer != null) {
+            accountConsumed();
+            bufferPool.release(buffer);
+            buffer = null;
+        }
         inputStream.close();
     }
 
@@ -73,19 +589,278 @@ public class BufferedInputStream extends InputStream {
         }
     }
 
+    // refills the consumed buffer, the bytes from a valid mark on are kept and the buffer grows for them up to the mark limit
     private void fillBuffer() throws IOException {
-        position = count = 0;
-        int readCount = inputStream.read(buffer, 0, buffer.length);
-        count += readCount;
+        dropExpiredMark();
+        if (markPosition < 0) {
+            adaptCapacity();
+            accountConsumed();
+            position = count = accounted = 0;
+        } else {
+            compact(markPosition);
+            if (count == buffer.length) {
+                grow((int) Math.min(buffer.length * 2L, markLimit));
+            }
+        }
+        long start = startTime();
+        int readCount = inputStream.read(buffer, count, buffer.length - count);
+        metrics.bufferFilled(Math.max(readCount, 0), elapsed(start));
+        if (readCount > 0) {
+            count += readCount;
+        }
     }
 
     private int readFromBufferAndInputStream(byte[] b, int off, int len) throws IOException {
         int readBytesToDestArray = count - position;
         System.arraycopy(buffer, position, b, off, readBytesToDestArray);
         position += readBytesToDestArray;
-        int resultInputRead = inputStream.read(b, off + readBytesToDestArray, len - readBytesToDestArray);
-        readBytesToDestArray += resultInputRead < 0 && readBytesToDestArray == 0 ? -1 : resultInputRead;
+        int remainder = len - readBytesToDestArray;
+
+        int resultInputRead;
+        if (remainder >= buffer.length && markPosition < 0) {
+            adaptCapacity();
+            accountConsumed();
+            long start = startTime();
+            resultInputRead = inputStream.read(b, off + readBytesToDestArray, remainder);
+            if (resultInputRead > 0) {
+                metrics.bypassRead(resultInputRead, elapsed(start));
+            }
+            account(b, off + readBytesToDestArray, resultInputRead);
+        } else {
+            fillBuffer();
+            resultInputRead = Math.min(remainder, count - position);
+            System.arraycopy(buffer, position, b, off + readBytesToDestArray, resultInputRead);
+            position += resultInputRead;
+        }
+
+        if (resultInputRead <= 0) {
+            return readBytesToDestArray == 0 ? -1 : readBytesToDestArray;
+        }
+        return readBytesToDestArray + resultInputRead;
+    }
+
+    private boolean require(int length) throws IOException {
+        ensureIsOpen();
+        if (buffer.length < length) {
+            return count - position >= length;
+        }
+        while (count - position < length) {
+            fillMore(length);
+        }
+        return true;
+    }
+
+    // false when the buffer is already full
+    private boolean fillMore(int length) throws IOException {
+        int readCount = readMore(length);
+        if (readCount < 0) {
+            throw new EOFException();
+        }
+        return readCount > 0;
+    }
+
+    // moves the unread and the marked bytes to the front, grows the buffer to hold length unread bytes
+    // and reads more after them, 0 when the buffer is already full
+    private int readMore(int length) throws IOException {
+        dropExpiredMark();
+        compact(markPosition >= 0 ? markPosition : position);
+        if (buffer.length - position < length) {
+            grow(position + length);
+        }
+        if (count == buffer.length) {
+            return 0;
+        }
+        long start = startTime();
+        int readCount = inputStream.read(buffer, count, buffer.length - count);
+        metrics.bufferFilled(Math.max(readCount, 0), elapsed(start));
+        if (readCount > 0) {
+            count += readCount;
+        }
+        return readCount;
+    }
+
+    private void compact(int from) {
+        if (from > 0) {
+            accountConsumed();
+            System.arraycopy(buffer, from, buffer, 0, count - from);
+            count -= from;
+            position -= from;
+            accounted -= from;
+            if (markPosition >= 0) {
+                markPosition -= from;
+            }
+        }
+    }
+
+    private void grow(int capacity) {
+        byte[] newBuffer = bufferPool.acquire(capacity);
+        System.arraycopy(buffer, 0, newBuffer, 0, count);
+        metrics.bufferGrown(buffer.length, newBuffer.length, count);
+        bufferPool.release(buffer);
+        buffer = newBuffer;
+    }
+
+    private void dropExpiredMark() {
+        if (markPosition >= 0 && position - markPosition >= Math.max(markLimit, 1)) {
+            markPosition = -1;
+        }
+    }
+
+    private int appendToLine(int lineLength, int end) {
+        int length = end - position;
+        if (lineBuffer == null || lineBuffer.length - lineLength < length) {
+            byte[] newLineBuffer = new byte[Math.max(lineLength + length, lineBuffer == null ? 128 : lineBuffer.length * 2)];
+            if (lineLength > 0) {
+                System.arraycopy(lineBuffer, 0, newLineBuffer, 0, lineLength);
+            }
+            lineBuffer = newLineBuffer;
+        }
+        System.arraycopy(buffer, position, lineBuffer, lineLength, length);
+        position = end;
+        return lineLength + length;
+    }
+
+    private static String decodeLine(byte[] b, int from, int to, Charset charset) {
+        if (to > from && b[to - 1] == '\r') {
+            to--;
+        }
+        return new String(b, from, to - from, charset);
+    }
+
+    private byte[] readFully(int length) throws IOException {
+        if (scratch == null) {
+            scratch = new byte[Primitives.MAX_VAR_LONG_SIZE];
+        }
+        int readBytes = 0;
+        while (readBytes < length) {
+            int result = read(scratch, readBytes, length - readBytes);
+            if (result < 0) {
+                throw new EOFException();
+            }
+            readBytes += result;
+        }
+        return scratch;
+    }
+
+    private long readVarLongByteByByte() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Primitives.MAX_VAR_LONG_SIZE * 7; shift += 7) {
+            int next = read();
+            if (next < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint, more than " + Primitives.MAX_VAR_LONG_SIZE + " bytes");
+    }
+
+    private long drainBufferTo(ByteBuffer[] dsts) {
+        long drained = 0;
+        for (ByteBuffer dst : dsts) {
+            int bytesToCopy = Math.min(dst.remaining(), count - position);
+            dst.put(buffer, position, bytesToCopy);
+            position += bytesToCopy;
+            drained += bytesToCopy;
+        }
+        return drained;
+    }
+
+    private long transferRest(OutputStream out) throws IOException {
+        accountConsumed();
+        long start = startTime();
+        long transferred;
+        if (channel instanceof FileChannel source && out instanceof FileOutputStream fileOutputStream) {
+            FileChannel target = fileOutputStream.getChannel();
+            long sourcePosition = source.position();
+            transferred = 0;
+            long remaining;
+            // the size is read on every pass and 0 ends the loop, so a file truncated meanwhile can not spin it
+            while ((remaining = source.size() - sourcePosition - transferred) > 0) {
+                long count = source.transferTo(sourcePosition + transferred, remaining, target);
+                if (count == 0) {
+                    break;
+                }
+                transferred += count;
+            }
+            source.position(sourcePosition + transferred);
+        } else {
+            transferred = inputStream.transferTo(out);
+        }
+        if (transferred > 0) {
+            metrics.bypassRead((int) Math.min(transferred, Integer.MAX_VALUE), elapsed(start));
+            metrics.bytesRead(transferred);
+        }
+        return transferred;
+    }
+
+    private void account(byte[] b, int off, int len) {
+        if (len > 0) {
+            if (checksum != null) {
+                checksum.update(b, off, len);
+            }
+            metrics.bytesRead(len);
+        }
+    }
+
+    // hashes and counts the bytes consumed from the buffer since the last call
+    // bytes read again after reset() are not counted twice
+    private void accountConsumed() {
+        if (position > accounted) {
+            if (checksum != null) {
+                checksum.update(buffer, accounted, position - accounted);
+            }
+            metrics.bytesRead(position - accounted);
+            accounted = position;
+        }
+    }
+
+    private long startTime() {
+        return metrics == StreamMetrics.NOOP ? 0 : System.nanoTime();
+    }
+
+    private long elapsed(long startTime) {
+        return metrics == StreamMetrics.NOOP ? 0 : System.nanoTime() - startTime;
+    }
+
+    private void updateChecksum(ByteBuffer[] buffers, int[] startPositions) {
+        for (int i = 0; i < buffers.length; i++) {
+            checksum.update(buffers[i].duplicate().flip().position(startPositions[i]));
+        }
+    }
+
+    private static int[] positions(ByteBuffer[] buffers) {
+        int[] positions = new int[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            positions[i] = buffers[i].position();
+        }
+        return positions;
+    }
+
+    private static boolean hasRemaining(ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void adaptCapacity() {
+        if (adaptiveCapacity != null) {
+            int capacity = adaptiveCapacity.onBoundary(buffer.length, Math.max(count, 0));
+            if (capacity != buffer.length) {
+                accountConsumed();
+                bufferPool.release(buffer);
+                buffer = bufferPool.acquire(capacity);
+                position = count = accounted = 0;
+            }
+        }
+    }
 
-        return readBytesToDestArray;
+    int getBufferSize() {
+        return buffer.length;
     }
 }
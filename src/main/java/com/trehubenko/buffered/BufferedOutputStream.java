@@ -1,22 +1,78 @@
 package com.trehubenko.buffered;
 
+import com.trehubenko.metrics.StreamMetrics;
+import com.trehubenko.pool.BufferPool;
+import com.trehubenko.primitive.Primitives;
+
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
 
-public class BufferedOutputStream extends OutputStream {
+public class BufferedOutputStream extends OutputStream implements WritableByteChannel {
 
     private static final int DEFAULT_CAPACITY = 8 * 1024;
     private final OutputStream outputStream;
+    private final GatheringByteChannel channel;
+    private final BufferPool bufferPool;
+    private final AdaptiveCapacity adaptiveCapacity;
     private byte[] buffer;
     private int position;
+    private byte[] scratch;
+    private Checksum checksum;
+    private StreamMetrics metrics = StreamMetrics.NOOP;
+    private int accounted;
 
     public BufferedOutputStream(OutputStream outputStream) {
         this(DEFAULT_CAPACITY, outputStream);
     }
 
     public BufferedOutputStream(int initialCapacity, OutputStream outputStream) {
-        this.buffer = new byte[initialCapacity];
+        this(initialCapacity, outputStream, BufferPool.UNPOOLED);
+    }
+
+    public BufferedOutputStream(OutputStream outputStream, BufferPool bufferPool) {
+        this(DEFAULT_CAPACITY, outputStream, bufferPool);
+    }
+
+    public BufferedOutputStream(int initialCapacity, OutputStream outputStream, BufferPool bufferPool) {
+        this(initialCapacity, outputStream, bufferPool, null);
+    }
+
+    public BufferedOutputStream(int minCapacity, int maxCapacity, OutputStream outputStream) {
+        this(minCapacity, maxCapacity, outputStream, BufferPool.UNPOOLED);
+    }
+
+    public BufferedOutputStream(int minCapacity, int maxCapacity, OutputStream outputStream, BufferPool bufferPool) {
+        this(new AdaptiveCapacity(minCapacity, maxCapacity), outputStream, bufferPool);
+    }
+
+    public BufferedOutputStream(int initialCapacity, GatheringByteChannel channel) {
+        this(initialCapacity, Channels.newOutputStream(channel), channel, BufferPool.UNPOOLED, null);
+    }
+
+    private BufferedOutputStream(AdaptiveCapacity adaptiveCapacity, OutputStream outputStream, BufferPool bufferPool) {
+        this(adaptiveCapacity.initialCapacity(DEFAULT_CAPACITY), outputStream, bufferPool, adaptiveCapacity);
+    }
+
+    private BufferedOutputStream(int initialCapacity, OutputStream outputStream, BufferPool bufferPool, AdaptiveCapacity adaptiveCapacity) {
+        this(initialCapacity, outputStream, outputStream instanceof FileOutputStream fileOutputStream ? fileOutputStream.getChannel() : null,
+                bufferPool, adaptiveCapacity);
+    }
+
+    private BufferedOutputStream(int initialCapacity, OutputStream outputStream, GatheringByteChannel channel,
+                                 BufferPool bufferPool, AdaptiveCapacity adaptiveCapacity) {
+        this.buffer = bufferPool.acquire(initialCapacity);
+        this.bufferPool = bufferPool;
+        this.adaptiveCapacity = adaptiveCapacity;
         this.outputStream = outputStream;
+        this.channel = channel;
     }
 
     @Override
@@ -39,23 +95,238 @@ public class BufferedOutputStream extends OutputStream {
         if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len <= 0) {
             throw new IndexOutOfBoundsException("array length = b[" + b.length + "]" + ", off = " + off + ", len = " + len);
         }
+        if (adaptiveCapacity != null) {
+            adaptiveCapacity.onRequest(len);
+        }
 
         if (len > (buffer.length - position)) {
-            flush();
-            outputStream.write(b, off, len);
+            if (channel != null && position != 0) {
+                accountWritten();
+                writeGathering(new ByteBuffer[]{ByteBuffer.wrap(buffer, 0, position), ByteBuffer.wrap(b, off, len)});
+            } else {
+                flush();
+                long start = startTime();
+                outputStream.write(b, off, len);
+                metrics.bypassWritten(len, elapsed(start));
+            }
+            metrics.bytesWritten(len);
+            if (checksum != null) {
+                checksum.update(b, off, len);
+            }
         } else {
             System.arraycopy(b, off, buffer, position, len);
             position += len;
         }
     }
 
+    /**
+     * Copies {@code src} into the buffer in one bulk operation. A heap buffer is written like an array,
+     * a direct buffer that does not fit goes out together with the buffered bytes in one gathering
+     * write when the target has a channel.
+     */
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        ensureIsOpen();
+        int length = src.remaining();
+        if (length == 0) {
+            return 0;
+        }
+        if (src.hasArray()) {
+            write(src.array(), src.arrayOffset() + src.position(), length);
+            src.position(src.limit());
+        } else if (channel != null && length > buffer.length - position) {
+            write(new ByteBuffer[]{src});
+        } else {
+            while (src.hasRemaining()) {
+                if (position == buffer.length) {
+                    flush();
+                }
+                int bytesToCopy = Math.min(src.remaining(), buffer.length - position);
+                src.get(buffer, position, bytesToCopy);
+                position += bytesToCopy;
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    /**
+     * Gathering write, buffered bytes and {@code srcs} go out in one {@code write(ByteBuffer[])}
+     * when the target is a channel or a {@link FileOutputStream}.
+     */
+    public long write(ByteBuffer[] srcs) throws IOException {
+        ensureIsOpen();
+        long length = 0;
+        for (ByteBuffer src : srcs) {
+            length += src.remaining();
+        }
+
+        if (channel != null) {
+            accountWritten();
+            if (checksum != null) {
+                for (ByteBuffer src : srcs) {
+                    checksum.update(src.duplicate());
+                }
+            }
+            ByteBuffer[] buffers = new ByteBuffer[srcs.length + 1];
+            buffers[0] = ByteBuffer.wrap(buffer, 0, position);
+            System.arraycopy(srcs, 0, buffers, 1, srcs.length);
+            writeGathering(buffers);
+            metrics.bytesWritten(length);
+        } else {
+            flush();
+            for (ByteBuffer src : srcs) {
+                while (src.hasRemaining()) {
+                    int bytesToCopy = Math.min(src.remaining(), buffer.length - position);
+                    src.get(buffer, position, bytesToCopy);
+                    position += bytesToCopy;
+                    if (position == buffer.length) {
+                        flush();
+                    }
+                }
+            }
+        }
+        return length;
+    }
+
+    public void writeShort(int value) throws IOException {
+        if (reserve(Short.BYTES)) {
+            Primitives.putShort(buffer, position, (short) value);
+            position += Short.BYTES;
+        } else {
+            Primitives.putShort(scratch(), 0, (short) value);
+            write(scratch(), 0, Short.BYTES);
+        }
+    }
+
+    public void writeShortLE(int value) throws IOException {
+        if (reserve(Short.BYTES)) {
+            Primitives.putShortLE(buffer, position, (short) value);
+            position += Short.BYTES;
+        } else {
+            Primitives.putShortLE(scratch(), 0, (short) value);
+            write(scratch(), 0, Short.BYTES);
+        }
+    }
+
+    public void writeInt(int value) throws IOException {
+        if (reserve(Integer.BYTES)) {
+            Primitives.putInt(buffer, position, value);
+            position += Integer.BYTES;
+        } else {
+            Primitives.putInt(scratch(), 0, value);
+            write(scratch(), 0, Integer.BYTES);
+        }
+    }
+
+    public void writeIntLE(int value) throws IOException {
+        if (reserve(Integer.BYTES)) {
+            Primitives.putIntLE(buffer, position, value);
+            position += Integer.BYTES;
+        } else {
+            Primitives.putIntLE(scratch(), 0, value);
+            write(scratch(), 0, Integer.BYTES);
+        }
+    }
+
+    public void writeLong(long value) throws IOException {
+        if (reserve(Long.BYTES)) {
+            Primitives.putLong(buffer, position, value);
+            position += Long.BYTES;
+        } else {
+            Primitives.putLong(scratch(), 0, value);
+            write(scratch(), 0, Long.BYTES);
+        }
+    }
+
+    public void writeLongLE(long value) throws IOException {
+        if (reserve(Long.BYTES)) {
+            Primitives.putLongLE(buffer, position, value);
+            position += Long.BYTES;
+        } else {
+            Primitives.putLongLE(scratch(), 0, value);
+            write(scratch(), 0, Long.BYTES);
+        }
+    }
+
+    public void writeFloat(float value) throws IOException {
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    public void writeFloatLE(float value) throws IOException {
+        writeIntLE(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDoubleLE(double value) throws IOException {
+        writeLongLE(Double.doubleToRawLongBits(value));
+    }
+
+    public void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    public void writeSignedVarInt(int value) throws IOException {
+        writeVarLong(Primitives.encodeZigZag(value) & 0xFFFFFFFFL);
+    }
+
+    public void writeSignedVarLong(long value) throws IOException {
+        writeVarLong(Primitives.encodeZigZag(value));
+    }
+
+    public void writeVarLong(long value) throws IOException {
+        if (reserve(Primitives.varLongSize(value))) {
+            position = Primitives.putVarLong(buffer, position, value);
+        } else {
+            write(scratch(), 0, Primitives.putVarLong(scratch(), 0, value));
+        }
+    }
+
+    public void enableChecksum() {
+        enableChecksum(new CRC32C());
+    }
+
+    /**
+     * Updates {@code checksum} with every byte written from now on. Buffered bytes are hashed as one
+     * block when the buffer is flushed or the value is requested, writes past the buffer are hashed
+     * in the caller's array.
+     */
+    public void enableChecksum(Checksum checksum) {
+        accountWritten();
+        this.checksum = checksum;
+    }
+
+    public long getChecksumValue() {
+        if (checksum == null) {
+            throw new RuntimeException("Checksum is not enabled");
+        }
+        accountWritten();
+        return checksum.getValue();
+    }
+
+    public void setMetrics(StreamMetrics metrics) {
+        accountWritten();
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
     @Override
     public void flush() throws IOException {
         ensureIsOpen();
+        accountWritten();
         if (position != 0) {
+            long start = startTime();
             outputStream.write(buffer, 0, position);
+            metrics.bufferFlushed(position, elapsed(start));
         }
-        position = 0;
+        adaptCapacity();
+        position = accounted = 0;
     }
 
     @Override
@@ -63,7 +334,10 @@ public class BufferedOutputStream extends OutputStream {
         if (position != 0) {
             flush();
         }
-        buffer = null;
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
         outputStream.close();
     }
 
@@ -72,4 +346,67 @@ public class BufferedOutputStream extends OutputStream {
             throw new RuntimeException("InputStream is closed");
         }
     }
+
+    private void writeGathering(ByteBuffer[] buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer byteBuffer : buffers) {
+            remaining += byteBuffer.remaining();
+        }
+        long length = remaining;
+        long start = startTime();
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        metrics.bypassWritten(length, elapsed(start));
+        adaptCapacity();
+        position = accounted = 0;
+    }
+
+    // hashes and counts the bytes written to the buffer since the last call
+    private void accountWritten() {
+        if (position > accounted) {
+            if (checksum != null) {
+                checksum.update(buffer, accounted, position - accounted);
+            }
+            metrics.bytesWritten(position - accounted);
+        }
+        accounted = position;
+    }
+
+    private long startTime() {
+        return metrics == StreamMetrics.NOOP ? 0 : System.nanoTime();
+    }
+
+    private long elapsed(long startTime) {
+        return metrics == StreamMetrics.NOOP ? 0 : System.nanoTime() - startTime;
+    }
+
+    private boolean reserve(int length) throws IOException {
+        ensureIsOpen();
+        if (buffer.length - position < length) {
+            flush();
+        }
+        return buffer.length - position >= length;
+    }
+
+    private byte[] scratch() {
+        if (scratch == null) {
+            scratch = new byte[Primitives.MAX_VAR_LONG_SIZE];
+        }
+        return scratch;
+    }
+
+    private void adaptCapacity() {
+        if (adaptiveCapacity != null) {
+            int capacity = adaptiveCapacity.onBoundary(buffer.length, position);
+            if (capacity != buffer.length) {
+                bufferPool.release(buffer);
+                buffer = bufferPool.acquire(capacity);
+            }
+        }
+    }
+
+    int getBufferSize() {
+        return buffer.length;
+    }
 }
@@ -0,0 +1,155 @@
+package com.trehubenko.buffered;
+
+import com.trehubenko.compress.CompressionCodec;
+import com.trehubenko.compress.Compressor;
+import com.trehubenko.pool.BufferPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffers small writes and compresses them straight from the buffer into a second buffer that is
+ * written to the wrapped stream. Writes of at least the buffer capacity are compressed in place from
+ * the caller's array. {@link #flush()} compresses the buffered bytes, the compressor may still hold
+ * back output until {@link #finish()} or {@link #close()}.
+ */
+public class CompressingBufferedOutputStream extends OutputStream {
+
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+    private final OutputStream outputStream;
+    private final CompressionCodec codec;
+    private final BufferPool bufferPool;
+    private Compressor compressor;
+    private byte[] buffer;
+    private byte[] compressed;
+    private int position;
+
+    public CompressingBufferedOutputStream(CompressionCodec codec, OutputStream outputStream) {
+        this(DEFAULT_CAPACITY, codec, outputStream);
+    }
+
+    public CompressingBufferedOutputStream(int initialCapacity, CompressionCodec codec, OutputStream outputStream) {
+        this(initialCapacity, codec, outputStream, BufferPool.UNPOOLED);
+    }
+
+    public CompressingBufferedOutputStream(int initialCapacity, CompressionCodec codec, OutputStream outputStream, BufferPool bufferPool) {
+        if (initialCapacity <= 0) {
+            throw new RuntimeException("Capacity must be greater than 0");
+        }
+        this.outputStream = outputStream;
+        this.codec = codec;
+        this.bufferPool = bufferPool;
+        this.compressor = codec.acquireCompressor();
+        this.buffer = bufferPool.acquire(initialCapacity);
+        this.compressed = bufferPool.acquire(initialCapacity);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureIsWritable();
+        if (position == buffer.length) {
+            compressBuffer();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureIsWritable();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len <= 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "]" + ", off = " + off + ", len = " + len);
+        }
+
+        if (len > (buffer.length - position)) {
+            compressBuffer();
+            if (len >= buffer.length) {
+                compress(b, off, len);
+                return;
+            }
+        }
+        System.arraycopy(b, off, buffer, position, len);
+        position += len;
+    }
+
+    /**
+     * Compresses the buffered bytes and flushes the wrapped stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureIsOpen();
+        compressBuffer();
+        outputStream.flush();
+    }
+
+    /**
+     * Writes the rest of the compressed data without closing the wrapped stream.
+     */
+    public void finish() throws IOException {
+        ensureIsOpen();
+        if (compressor.finished()) {
+            return;
+        }
+        compressBuffer();
+        compressor.finish();
+        while (!compressor.finished()) {
+            drain();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            codec.release(compressor);
+            bufferPool.release(buffer);
+            bufferPool.release(compressed);
+            compressor = null;
+            buffer = null;
+            compressed = null;
+            outputStream.close();
+        }
+    }
+
+    private void compressBuffer() throws IOException {
+        if (position > 0) {
+            compress(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void compress(byte[] b, int off, int len) throws IOException {
+        compressor.setInput(b, off, len);
+        while (!compressor.needsInput()) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        int count = compressor.compress(compressed, 0, compressed.length);
+        if (count > 0) {
+            outputStream.write(compressed, 0, count);
+        }
+    }
+
+    private void ensureIsWritable() throws IOException {
+        ensureIsOpen();
+        if (compressor.finished()) {
+            throw new IOException("Write beyond end of compressed stream");
+        }
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("OutputStream is closed");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.trehubenko.buffered;
+
+import com.trehubenko.compress.CompressionCodec;
+import com.trehubenko.compress.Decompressor;
+import com.trehubenko.pool.BufferPool;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads compressed bytes into a buffer the decompressor consumes in place. Reads of at least the buffer
+ * capacity are decompressed straight into the caller's array, smaller ones are served from a second buffer.
+ */
+public class DecompressingBufferedInputStream extends InputStream {
+
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+    private final InputStream inputStream;
+    private final CompressionCodec codec;
+    private final BufferPool bufferPool;
+    private Decompressor decompressor;
+    private byte[] compressed;
+    private byte[] buffer;
+    private int position;
+    private int count;
+
+    public DecompressingBufferedInputStream(CompressionCodec codec, InputStream inputStream) {
+        this(DEFAULT_CAPACITY, codec, inputStream);
+    }
+
+    public DecompressingBufferedInputStream(int initialCapacity, CompressionCodec codec, InputStream inputStream) {
+        this(initialCapacity, codec, inputStream, BufferPool.UNPOOLED);
+    }
+
+    public DecompressingBufferedInputStream(int initialCapacity, CompressionCodec codec, InputStream inputStream, BufferPool bufferPool) {
+        if (initialCapacity <= 0) {
+            throw new RuntimeException("Capacity must be greater than 0");
+        }
+        this.inputStream = inputStream;
+        this.codec = codec;
+        this.bufferPool = bufferPool;
+        this.decompressor = codec.acquireDecompressor();
+        this.compressed = bufferPool.acquire(initialCapacity);
+        this.buffer = bufferPool.acquire(initialCapacity);
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureIsOpen();
+        if (position == count && fillBuffer() < 0) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len < 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "], off = " + off + ", len = " + len);
+        }
+
+        if (off == b.length | len == 0) {
+            return 0;
+        }
+        if (position == count) {
+            if (len >= buffer.length) {
+                return decompress(b, off, len);
+            }
+            if (fillBuffer() < 0) {
+                return -1;
+            }
+        }
+        int bytesToCopy = Math.min(len, count - position);
+        System.arraycopy(buffer, position, b, off, bytesToCopy);
+        position += bytesToCopy;
+        return bytesToCopy;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureIsOpen();
+        return count - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        codec.release(decompressor);
+        bufferPool.release(compressed);
+        bufferPool.release(buffer);
+        decompressor = null;
+        compressed = null;
+        buffer = null;
+        inputStream.close();
+    }
+
+    private int fillBuffer() throws IOException {
+        int decompressedBytes = decompress(buffer, 0, buffer.length);
+        position = 0;
+        count = Math.max(decompressedBytes, 0);
+        return decompressedBytes;
+    }
+
+    private int decompress(byte[] b, int off, int len) throws IOException {
+        while (true) {
+            int decompressedBytes = decompressor.decompress(b, off, len);
+            if (decompressedBytes > 0) {
+                return decompressedBytes;
+            }
+            if (decompressor.finished()) {
+                return -1;
+            }
+            if (decompressor.needsInput()) {
+                int readBytes = inputStream.read(compressed, 0, compressed.length);
+                if (readBytes < 0) {
+                    throw new EOFException("Unexpected end of compressed stream");
+                }
+                decompressor.setInput(compressed, 0, readBytes);
+            }
+        }
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("InputStream is closed, use new one");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.trehubenko.buffered;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through memory mapped windows of {@code windowSize} bytes, a new window is mapped
+ * only when reading crosses the end of the current one.
+ */
+public class MappedFileInputStream extends InputStream {
+
+    private static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+    private static final ByteBuffer EMPTY_WINDOW = ByteBuffer.allocate(0);
+    private final FileChannel channel;
+    private final int windowSize;
+    private final long size;
+    private long windowStart;
+    private ByteBuffer window = EMPTY_WINDOW;
+
+    public MappedFileInputStream(Path path) throws IOException {
+        this(DEFAULT_WINDOW_SIZE, path);
+    }
+
+    public MappedFileInputStream(int windowSize, Path path) throws IOException {
+        if (windowSize <= 0) {
+            throw new RuntimeException("Window size must be greater than 0");
+        }
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureIsOpen();
+        if (!window.hasRemaining() && !mapNextWindow()) {
+            return -1;
+        }
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len < 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "], off = " + off + ", len = " + len);
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+        if (!window.hasRemaining() && !mapNextWindow()) {
+            return -1;
+        }
+
+        int readBytes = Math.min(len, window.remaining());
+        window.get(b, off, readBytes);
+        return readBytes;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureIsOpen();
+        long position = windowStart + window.position();
+        long skipped = Math.max(0, Math.min(n, size - position));
+        if (skipped <= window.remaining()) {
+            window.position(window.position() + (int) skipped);
+        } else {
+            windowStart = position + skipped;
+            window = EMPTY_WINDOW;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureIsOpen();
+        return (int) Math.min(Integer.MAX_VALUE, size - windowStart - window.position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private boolean mapNextWindow() throws IOException {
+        long nextWindowStart = windowStart + window.limit();
+        if (nextWindowStart >= size) {
+            return false;
+        }
+        window = channel.map(FileChannel.MapMode.READ_ONLY, nextWindowStart, Math.min(windowSize, size - nextWindowStart));
+        windowStart = nextWindowStart;
+        return true;
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (window == null) {
+            throw new IOException("InputStream is closed, use new one");
+        }
+    }
+}
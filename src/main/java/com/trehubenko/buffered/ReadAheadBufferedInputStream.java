@@ -0,0 +1,185 @@
+package com.trehubenko.buffered;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Fills up to {@code depth} buffers ahead of the reader on a background thread, so reading from the
+ * wrapped stream overlaps with consuming the current buffer. An IOException of the background read
+ * is thrown to the reader once it has consumed the data read before the failure.
+ */
+public class ReadAheadBufferedInputStream extends InputStream {
+
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+    private static final int DEFAULT_DEPTH = 1;
+    private static final ThreadFactory DEFAULT_THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable, "read-ahead");
+        thread.setDaemon(true);
+        return thread;
+    };
+    private static final Chunk END_OF_STREAM = new Chunk(null, -1, null);
+
+    private final InputStream inputStream;
+    private final ThreadFactory threadFactory;
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final BlockingQueue<Chunk> filledChunks;
+    private volatile boolean closed;
+    private Thread readAheadThread;
+    private Chunk chunk;
+    private int position;
+
+    public ReadAheadBufferedInputStream(InputStream inputStream) {
+        this(DEFAULT_CAPACITY, inputStream);
+    }
+
+    public ReadAheadBufferedInputStream(int initialCapacity, InputStream inputStream) {
+        this(initialCapacity, DEFAULT_DEPTH, inputStream);
+    }
+
+    public ReadAheadBufferedInputStream(int initialCapacity, int depth, InputStream inputStream) {
+        this(initialCapacity, depth, inputStream, DEFAULT_THREAD_FACTORY);
+    }
+
+    public ReadAheadBufferedInputStream(int initialCapacity, int depth, InputStream inputStream, ThreadFactory threadFactory) {
+        if (initialCapacity <= 0 | depth <= 0) {
+            throw new RuntimeException("Capacity and depth must be greater than 0");
+        }
+        this.inputStream = inputStream;
+        this.threadFactory = threadFactory;
+        this.freeBuffers = new ArrayBlockingQueue<>(depth + 1);
+        this.filledChunks = new ArrayBlockingQueue<>(depth + 2);
+        for (int i = 0; i <= depth; i++) {
+            freeBuffers.add(new byte[initialCapacity]);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureIsOpen();
+        if (position >= chunkCount() && !nextChunk()) {
+            return -1;
+        }
+        return chunk.buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len < 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "], off = " + off + ", len = " + len);
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= chunkCount() && !nextChunk()) {
+            return -1;
+        }
+
+        int readBytes = 0;
+        while (true) {
+            int bytesToCopy = Math.min(len - readBytes, chunk.count - position);
+            System.arraycopy(chunk.buffer, position, b, off + readBytes, bytesToCopy);
+            position += bytesToCopy;
+            readBytes += bytesToCopy;
+            // keep copying only while the next buffer is already filled with data
+            Chunk next = filledChunks.peek();
+            if (readBytes == len || next == null || next.buffer == null) {
+                return readBytes;
+            }
+            nextChunk();
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureIsOpen();
+        return Math.max(0, chunkCount() - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (readAheadThread != null) {
+                readAheadThread.interrupt();
+            }
+        }
+        inputStream.close();
+    }
+
+    private int chunkCount() {
+        return chunk == null ? 0 : chunk.count;
+    }
+
+    private boolean nextChunk() throws IOException {
+        if (chunk == END_OF_STREAM) {
+            return false;
+        }
+        if (chunk != null && chunk.failure != null) {
+            throw chunk.failure;
+        }
+        if (readAheadThread == null) {
+            readAheadThread = threadFactory.newThread(this::readAhead);
+            readAheadThread.start();
+        }
+        if (chunk != null) {
+            freeBuffers.add(chunk.buffer);
+        }
+
+        try {
+            chunk = filledChunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for read-ahead");
+        }
+        position = 0;
+        if (chunk.failure != null) {
+            throw chunk.failure;
+        }
+        return chunk != END_OF_STREAM;
+    }
+
+    private void readAhead() {
+        try {
+            while (!closed) {
+                byte[] buffer = freeBuffers.take();
+                int readCount;
+                try {
+                    readCount = inputStream.read(buffer, 0, buffer.length);
+                } catch (IOException e) {
+                    filledChunks.put(new Chunk(null, 0, e));
+                    return;
+                } catch (RuntimeException e) {
+                    filledChunks.put(new Chunk(null, 0, new IOException(e)));
+                    return;
+                }
+                if (readCount < 0) {
+                    filledChunks.put(END_OF_STREAM);
+                    return;
+                }
+                filledChunks.put(new Chunk(buffer, readCount, null));
+            }
+        } catch (InterruptedException ignored) {
+            // the stream was closed
+        }
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (closed) {
+            throw new IOException("InputStream is closed, use new one");
+        }
+    }
+
+    private record Chunk(byte[] buffer, int count, IOException failure) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.trehubenko.buffered;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An output stream for many writer threads. Every thread appends to its own buffer, and every
+ * {@code write} call is a record that is never split between buffers. Full buffers are published
+ * through a lock-free queue and written to the wrapped stream by whichever writer wins the drain.
+ * <p>
+ * {@link #flush()} publishes the buffer of the calling thread only. {@link #close()} publishes the
+ * buffers of all threads, so it must be called after the other writers are done.
+ */
+public class StripedBufferedOutputStream extends OutputStream {
+
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+    private final OutputStream outputStream;
+    private final int capacity;
+    private final ThreadLocal<Stripe> stripe = ThreadLocal.withInitial(this::newStripe);
+    private final Queue<Stripe> stripes = new ConcurrentLinkedQueue<>();
+    private final Queue<Chunk> publishedChunks = new ConcurrentLinkedQueue<>();
+    private final Queue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    public StripedBufferedOutputStream(OutputStream outputStream) {
+        this(DEFAULT_CAPACITY, outputStream);
+    }
+
+    public StripedBufferedOutputStream(int initialCapacity, OutputStream outputStream) {
+        if (initialCapacity <= 0) {
+            throw new RuntimeException("Capacity must be greater than 0");
+        }
+        this.capacity = initialCapacity;
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureIsOpen();
+        Stripe current = stripe.get();
+        if (current.position == current.buffer.length) {
+            publish(current);
+        }
+        current.buffer[current.position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len <= 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "]" + ", off = " + off + ", len = " + len);
+        }
+
+        Stripe current = stripe.get();
+        if (len > current.buffer.length - current.position) {
+            publish(current);
+            if (len > current.buffer.length) {
+                publishedChunks.add(new Chunk(Arrays.copyOfRange(b, off, off + len), len));
+                drain();
+                return;
+            }
+        }
+        System.arraycopy(b, off, current.buffer, current.position, len);
+        current.position += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureIsOpen();
+        publish(stripe.get());
+        flushOutputStream();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (Stripe current : stripes) {
+                publish(current);
+            }
+            flushOutputStream();
+        } finally {
+            stripes.clear();
+            stripe.remove();
+            outputStream.close();
+        }
+    }
+
+    private Stripe newStripe() {
+        var current = new Stripe(capacity);
+        stripes.add(current);
+        return current;
+    }
+
+    private void publish(Stripe current) throws IOException {
+        if (current.position != 0) {
+            publishedChunks.add(new Chunk(current.buffer, current.position));
+            byte[] freeBuffer = freeBuffers.poll();
+            current.buffer = freeBuffer != null ? freeBuffer : new byte[capacity];
+            current.position = 0;
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        // a chunk published after the last poll of the drainer is picked up by the loop of its publisher
+        while (!publishedChunks.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                writePublishedChunks();
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void flushOutputStream() throws IOException {
+        while (!draining.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+        try {
+            writePublishedChunks();
+            outputStream.flush();
+        } finally {
+            draining.set(false);
+        }
+        drain();
+    }
+
+    private void writePublishedChunks() throws IOException {
+        Chunk chunk;
+        while ((chunk = publishedChunks.poll()) != null) {
+            try {
+                outputStream.write(chunk.buffer, 0, chunk.length);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            if (chunk.buffer.length == capacity) {
+                freeBuffers.add(chunk.buffer);
+            }
+        }
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (closed) {
+            throw new IOException("OutputStream is closed");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Stripe {
+        private byte[] buffer;
+        private int position;
+
+        private Stripe(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+    }
+
+    private record Chunk(byte[] buffer, int length) {
+    }
+}
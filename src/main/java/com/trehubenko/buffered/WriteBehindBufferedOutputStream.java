@@ -0,0 +1,205 @@
+package com.trehubenko.buffered;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Hands full buffers to a background thread that writes them to the wrapped stream, so the producer
+ * does not wait on the write. At most {@code maxInFlight} buffers wait for the writer, after that the
+ * producer blocks until one is written. {@link #flush()} and {@link #close()} wait for all of them.
+ * An IOException of the background write is thrown on the next call of the producer.
+ */
+public class WriteBehindBufferedOutputStream extends OutputStream {
+
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 2;
+    private static final ThreadFactory DEFAULT_THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable, "write-behind");
+        thread.setDaemon(true);
+        return thread;
+    };
+    private static final Chunk STOP = new Chunk(null, -1, null);
+
+    private final OutputStream outputStream;
+    private final ThreadFactory threadFactory;
+    private final BlockingQueue<byte[]> freeBuffers;
+    private final BlockingQueue<Chunk> filledChunks;
+    private volatile IOException failure;
+    private Thread writeBehindThread;
+    private byte[] buffer;
+    private int position;
+
+    public WriteBehindBufferedOutputStream(OutputStream outputStream) {
+        this(DEFAULT_CAPACITY, outputStream);
+    }
+
+    public WriteBehindBufferedOutputStream(int initialCapacity, OutputStream outputStream) {
+        this(initialCapacity, DEFAULT_MAX_IN_FLIGHT, outputStream);
+    }
+
+    public WriteBehindBufferedOutputStream(int initialCapacity, int maxInFlight, OutputStream outputStream) {
+        this(initialCapacity, maxInFlight, outputStream, DEFAULT_THREAD_FACTORY);
+    }
+
+    public WriteBehindBufferedOutputStream(int initialCapacity, int maxInFlight, OutputStream outputStream, ThreadFactory threadFactory) {
+        if (initialCapacity <= 0 | maxInFlight <= 0) {
+            throw new RuntimeException("Capacity and max in flight buffers must be greater than 0");
+        }
+        this.outputStream = outputStream;
+        this.threadFactory = threadFactory;
+        this.freeBuffers = new ArrayBlockingQueue<>(maxInFlight + 1);
+        this.filledChunks = new ArrayBlockingQueue<>(maxInFlight + 2);
+        for (int i = 0; i < maxInFlight; i++) {
+            freeBuffers.add(new byte[initialCapacity]);
+        }
+        this.buffer = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureIsOpen();
+        if (position == buffer.length) {
+            handOver();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len <= 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "]" + ", off = " + off + ", len = " + len);
+        }
+
+        while (len > 0) {
+            if (position == buffer.length) {
+                handOver();
+            }
+            int bytesToCopy = Math.min(len, buffer.length - position);
+            System.arraycopy(b, off, buffer, position, bytesToCopy);
+            position += bytesToCopy;
+            off += bytesToCopy;
+            len -= bytesToCopy;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureIsOpen();
+        if (position != 0) {
+            handOver();
+        }
+        if (writeBehindThread != null) {
+            var flushed = new CountDownLatch(1);
+            put(new Chunk(null, 0, flushed));
+            try {
+                flushed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for write-behind flush");
+            }
+        } else {
+            outputStream.flush();
+        }
+        throwIfFailed();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            if (writeBehindThread != null) {
+                put(STOP);
+            }
+            buffer = null;
+            outputStream.close();
+        }
+    }
+
+    private void handOver() throws IOException {
+        if (writeBehindThread == null) {
+            writeBehindThread = threadFactory.newThread(this::writeBehind);
+            writeBehindThread.start();
+        }
+        put(new Chunk(buffer, position, null));
+        try {
+            buffer = freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free buffer");
+        }
+        position = 0;
+        throwIfFailed();
+    }
+
+    private void put(Chunk chunk) throws InterruptedIOException {
+        try {
+            filledChunks.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while handing over a buffer");
+        }
+    }
+
+    private void writeBehind() {
+        try {
+            while (true) {
+                Chunk chunk = filledChunks.take();
+                if (chunk == STOP) {
+                    return;
+                }
+                try {
+                    if (failure == null) {
+                        if (chunk.buffer != null) {
+                            outputStream.write(chunk.buffer, 0, chunk.length);
+                        } else {
+                            outputStream.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = new IOException(e);
+                } finally {
+                    if (chunk.buffer != null) {
+                        freeBuffers.add(chunk.buffer);
+                    } else {
+                        chunk.flushed.countDown();
+                    }
+                }
+            }
+        } catch (InterruptedException ignored) {
+            // nobody is left to hand over buffers
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("OutputStream is closed");
+        }
+        throwIfFailed();
+    }
+
+    private record Chunk(byte[] buffer, int length, CountDownLatch flushed) {
+    }
+}
@@ -1,30 +1,53 @@
 package com.trehubenko.bytearray;
 
+import com.trehubenko.metrics.StreamMetrics;
+import com.trehubenko.primitive.Primitives;
+
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
 
-public class ByteArrayInputStream extends InputStream {
+public class ByteArrayInputStream extends InputStream implements SeekableByteChannel {
 
     private byte[] buffer;
 
     private int position;
 
+    private final int offset;
+
+    private final int limit;
+
+    private StreamMetrics metrics = StreamMetrics.NOOP;
+
+    private int accounted;
+
     public ByteArrayInputStream(byte[] b) {
-        buffer = b;
+        this(b, 0, b.length);
     }
 
+    /**
+     * Reads {@code len} bytes of {@code b} starting from {@code off}, the array is shared, not copied.
+     */
     public ByteArrayInputStream(byte[] b, int off, int len) {
-        buffer = new byte[len];
-        System.arraycopy(b, off, this.buffer, 0, len);
+        Objects.checkFromIndexSize(off, len, b.length);
+        buffer = b;
+        position = accounted = offset = off;
+        limit = off + len;
     }
 
     @Override
     public int read() throws IOException {
         ensureIsOpen();
-        if (position == buffer.length) {
+        if (position == limit) {
             return -1;
         }
-        return buffer[position++];
+        return buffer[position++] & 0xFF;
     }
 
     @Override
@@ -39,7 +62,7 @@ public class ByteArrayInputStream extends InputStream {
             throw new IndexOutOfBoundsException("array length = b[" + b.length + "]" + ", off = " + off + ", len = " + len);
         }
 
-        int readBytes = buffer.length - position;
+        int readBytes = limit - position;
 
         if (readBytes == 0) {
             return -1;
@@ -54,11 +77,245 @@ public class ByteArrayInputStream extends InputStream {
         return readBytes;
     }
 
+    @Override
+    public byte[] readAllBytes() throws IOException {
+        return readNBytes(limit - position);
+    }
+
+    @Override
+    public byte[] readNBytes(int len) throws IOException {
+        ensureIsOpen();
+        if (len < 0) {
+            throw new IllegalArgumentException("len < 0");
+        }
+        int bytesToCopy = Math.min(len, limit - position);
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + bytesToCopy);
+        position += bytesToCopy;
+        return bytes;
+    }
+
+    @Override
+    public int readNBytes(byte[] b, int off, int len) throws IOException {
+        return Math.max(read(b, off, len), 0);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureIsOpen();
+        int skipped = (int) Math.max(0, Math.min(n, limit - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureIsOpen();
+        return limit - position;
+    }
+
+    /**
+     * Writes the remaining bytes with one {@code write(byte[], off, len)} call.
+     */
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        ensureIsOpen();
+        int length = limit - position;
+        if (length > 0) {
+            out.write(buffer, position, length);
+            position = limit;
+        }
+        return length;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureIsOpen();
+        if (position == limit && dst.hasRemaining()) {
+            return -1;
+        }
+        int readBytes = Math.min(dst.remaining(), limit - position);
+        dst.put(buffer, position, readBytes);
+        position += readBytes;
+        return readBytes;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * Position relative to the start of the range this stream reads.
+     */
+    @Override
+    public long position() throws IOException {
+        ensureIsOpen();
+        return position - offset;
+    }
+
+    /**
+     * Moves to {@code newPosition} of the range, a position past the end reads end of stream.
+     */
+    @Override
+    public ByteArrayInputStream position(long newPosition) throws IOException {
+        ensureIsOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("newPosition < 0");
+        }
+        accountRead();
+        position = accounted = (int) Math.min(offset + newPosition, limit);
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureIsOpen();
+        return limit - offset;
+    }
+
+    @Override
+    public ByteArrayInputStream truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    public short readShort() throws IOException {
+        require(Short.BYTES);
+        short value = Primitives.getShort(buffer, position);
+        position += Short.BYTES;
+        return value;
+    }
+
+    public short readShortLE() throws IOException {
+        require(Short.BYTES);
+        short value = Primitives.getShortLE(buffer, position);
+        position += Short.BYTES;
+        return value;
+    }
+
+    public int readInt() throws IOException {
+        require(Integer.BYTES);
+        int value = Primitives.getInt(buffer, position);
+        position += Integer.BYTES;
+        return value;
+    }
+
+    public int readIntLE() throws IOException {
+        require(Integer.BYTES);
+        int value = Primitives.getIntLE(buffer, position);
+        position += Integer.BYTES;
+        return value;
+    }
+
+    public long readLong() throws IOException {
+        require(Long.BYTES);
+        long value = Primitives.getLong(buffer, position);
+        position += Long.BYTES;
+        return value;
+    }
+
+    public long readLongLE() throws IOException {
+        require(Long.BYTES);
+        long value = Primitives.getLongLE(buffer, position);
+        position += Long.BYTES;
+        return value;
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public float readFloatLE() throws IOException {
+        return Float.intBitsToFloat(readIntLE());
+    }
+
+    public double readDoubleLE() throws IOException {
+        return Double.longBitsToDouble(readLongLE());
+    }
+
+    public int readVarInt() throws IOException {
+        return Primitives.toVarInt(readVarLong());
+    }
+
+    public int readSignedVarInt() throws IOException {
+        return Primitives.decodeZigZag(Primitives.toVarInt(readVarLong()));
+    }
+
+    public long readSignedVarLong() throws IOException {
+        return Primitives.decodeZigZag(readVarLong());
+    }
+
+    public long readVarLong() throws IOException {
+        ensureIsOpen();
+        int length = Primitives.varLongLength(buffer, position, limit);
+        if (length < 0) {
+            throw new EOFException();
+        }
+        long value = Primitives.getVarLong(buffer, position);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Returns a stream over the next {@code length} bytes and skips them in this stream.
+     * Both streams share the backing array.
+     */
+    public ByteArrayInputStream slice(int length) throws IOException {
+        ensureIsOpen();
+        if (length < 0 | length > limit - position) {
+            throw new IndexOutOfBoundsException("remaining = " + (limit - position) + ", length = " + length);
+        }
+        var slice = new ByteArrayInputStream(buffer, position, length);
+        position += length;
+        return slice;
+    }
+
+    /**
+     * Returns a stream over the remaining bytes of this stream with its own independent position.
+     */
+    public ByteArrayInputStream duplicate() throws IOException {
+        ensureIsOpen();
+        return new ByteArrayInputStream(buffer, position, limit - position);
+    }
+
+    /**
+     * Bytes read are reported by {@link #close()}.
+     */
+    public void setMetrics(StreamMetrics metrics) {
+        accountRead();
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
     @Override
     public void close() {
+        if (buffer != null) {
+            accountRead();
+        }
         buffer = null;
     }
 
+    private void accountRead() {
+        if (position > accounted) {
+            metrics.bytesRead(position - accounted);
+        }
+        accounted = position;
+    }
+
+    private void require(int length) throws IOException {
+        ensureIsOpen();
+        if (limit - position < length) {
+            throw new EOFException();
+        }
+    }
+
     private void ensureIsOpen() throws IOException {
         if (buffer == null) {
             throw new IOException("InputStream is closed");
@@ -1,22 +1,49 @@
 package com.trehubenko.bytearray;
 
+import com.trehubenko.metrics.StreamMetrics;
+import com.trehubenko.primitive.Primitives;
+
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
 
-public class ByteArrayOutputStream extends OutputStream {
+public class ByteArrayOutputStream extends OutputStream implements SeekableByteChannel {
     private final static int DEFAULT_CAPACITY = 8 * 1024;
-    private final static double GROW_FACTOR = 1.5;
+    private final static int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private final static int DEFAULT_TRIM_AFTER = 16;
+    private final int initialCapacity;
+    private final GrowthPolicy growthPolicy;
     private byte[] buffer;
     private int position;
+    private int size;
+    private Checksum checksum;
+    private StreamMetrics metrics = StreamMetrics.NOOP;
+    private int accounted;
+    private int trimAfter = DEFAULT_TRIM_AFTER;
+    private int smallUses;
+    private int smallUsesHighWaterMark;
+    private int sizeHint;
 
     public ByteArrayOutputStream() {
         this(DEFAULT_CAPACITY);
     }
 
     public ByteArrayOutputStream(int customCapacity) {
+        this(customCapacity, GrowthPolicy.DEFAULT);
+    }
+
+    public ByteArrayOutputStream(int customCapacity, GrowthPolicy growthPolicy) {
         if (customCapacity < 0) {
             throw new RuntimeException("Capacity can not be less than 0");
         }
+        this.initialCapacity = customCapacity;
+        this.growthPolicy = Objects.requireNonNull(growthPolicy);
         this.buffer = new byte[customCapacity];
     }
 
@@ -24,11 +51,14 @@ public class ByteArrayOutputStream extends OutputStream {
     public void write(int b) throws IOException {
         ensureIsOpen();
 
-        if (position == buffer.length) {
-            grow();
+        if (position >= buffer.length || position > size) {
+            reserve(1);
         }
 
         buffer[position++] = (byte) b;
+        if (position > size) {
+            size = position;
+        }
     }
 
     @Override
@@ -42,43 +72,346 @@ public class ByteArrayOutputStream extends OutputStream {
         if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len <= 0) {
             throw new IndexOutOfBoundsException("array length = b[" + b.length + "], off = " + off + ", len = " + len);
         }
-        int remainderOfBuffer = buffer.length - position;
+        reserve(len);
+        System.arraycopy(b, off, buffer, position, len);
+        advanceTo(position + len);
+    }
 
-        if (len > remainderOfBuffer) {
-            grow();
-            write(b, off, len);
-        } else {
-            System.arraycopy(b, off, buffer, position, len);
-            position += len;
+    /**
+     * Copies {@code src} into the array in one bulk operation, growing it as needed.
+     */
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        int length = src.remaining();
+        reserve(length);
+        src.get(buffer, position, length);
+        advanceTo(position + length);
+        return length;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+        throw new NonReadableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureIsOpen();
+        return position;
+    }
+
+    /**
+     * Moves the write position, the next write overwrites the content from there. Writing past
+     * {@link #size()} extends the content, a gap is filled with zeros. Checksum and metrics only
+     * cover bytes that extend the content.
+     */
+    @Override
+    public ByteArrayOutputStream position(long newPosition) throws IOException {
+        ensureIsOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("newPosition < 0");
+        }
+        if (newPosition > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("newPosition > " + MAX_ARRAY_SIZE);
+        }
+        position = (int) newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureIsOpen();
+        return size;
+    }
+
+    /**
+     * Drops the content past {@code size} and moves the position back to it if it was further.
+     */
+    @Override
+    public ByteArrayOutputStream truncate(long size) throws IOException {
+        ensureIsOpen();
+        if (size < 0) {
+            throw new IllegalArgumentException("size < 0");
+        }
+        if (size < this.size) {
+            accountWritten();
+            this.size = accounted = (int) size;
+        }
+        if (position > size) {
+            position = (int) size;
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    public void writeShort(int value) throws IOException {
+        reserve(Short.BYTES);
+        Primitives.putShort(buffer, position, (short) value);
+        advanceTo(position + Short.BYTES);
+    }
+
+    public void writeShortLE(int value) throws IOException {
+        reserve(Short.BYTES);
+        Primitives.putShortLE(buffer, position, (short) value);
+        advanceTo(position + Short.BYTES);
+    }
+
+    public void writeInt(int value) throws IOException {
+        reserve(Integer.BYTES);
+        Primitives.putInt(buffer, position, value);
+        advanceTo(position + Integer.BYTES);
+    }
+
+    public void writeIntLE(int value) throws IOException {
+        reserve(Integer.BYTES);
+        Primitives.putIntLE(buffer, position, value);
+        advanceTo(position + Integer.BYTES);
+    }
+
+    public void writeLong(long value) throws IOException {
+        reserve(Long.BYTES);
+        Primitives.putLong(buffer, position, value);
+        advanceTo(position + Long.BYTES);
+    }
+
+    public void writeLongLE(long value) throws IOException {
+        reserve(Long.BYTES);
+        Primitives.putLongLE(buffer, position, value);
+        advanceTo(position + Long.BYTES);
+    }
+
+    public void writeFloat(float value) throws IOException {
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    public void writeFloatLE(float value) throws IOException {
+        writeIntLE(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDoubleLE(double value) throws IOException {
+        writeLongLE(Double.doubleToRawLongBits(value));
+    }
+
+    public void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    public void writeSignedVarInt(int value) throws IOException {
+        writeVarLong(Primitives.encodeZigZag(value) & 0xFFFFFFFFL);
+    }
+
+    public void writeSignedVarLong(long value) throws IOException {
+        writeVarLong(Primitives.encodeZigZag(value));
+    }
+
+    public void writeVarLong(long value) throws IOException {
+        reserve(Primitives.varLongSize(value));
+        advanceTo(Primitives.putVarLong(buffer, position, value));
+    }
+
+    public void enableChecksum() {
+        enableChecksum(new CRC32C());
+    }
+
+    /**
+     * Updates {@code checksum} with every byte written from now on. The bytes are hashed as one block
+     * when the value is requested or the content is handed over by {@link #writeTo(OutputStream)}.
+     */
+    public void enableChecksum(Checksum checksum) {
+        accountWritten();
+        this.checksum = checksum;
+    }
+
+    public long getChecksumValue() {
+        if (checksum == null) {
+            throw new RuntimeException("Checksum is not enabled");
         }
+        accountWritten();
+        return checksum.getValue();
+    }
+
+    /**
+     * Bytes written are reported by {@link #writeTo(OutputStream)} and {@link #close()}.
+     */
+    public void setMetrics(StreamMetrics metrics) {
+        accountWritten();
+        this.metrics = Objects.requireNonNull(metrics);
     }
 
     @Override
     public void close() {
+        if (buffer != null) {
+            accountWritten();
+        }
         this.buffer = null;
     }
 
-    private void grow() {
-        byte[] newBuffer = new byte[(int) (buffer.length * GROW_FACTOR) + 1];
-        if (position > 0) {
-            System.arraycopy(buffer, 0, newBuffer, 0, position);
+    /**
+     * Grows the array to at least {@code minCapacity} bytes right away and ignores the growth policy,
+     * for callers that know the final size.
+     */
+    public void ensureCapacity(int minCapacity) throws IOException {
+        ensureIsOpen();
+        if (minCapacity > buffer.length) {
+            resize(minCapacity);
+        }
+    }
+
+    /**
+     * The first growth that fits into {@code expectedSize} bytes goes straight to it, the array is not
+     * allocated before it is needed.
+     */
+    public void setSizeHint(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new RuntimeException("Size hint can not be less than 0");
+        }
+        this.sizeHint = expectedSize;
+    }
+
+    private void grow(long minCapacity) {
+        if (minCapacity > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("ByteArrayOutputStream can not grow beyond " + MAX_ARRAY_SIZE
+                    + " bytes, use SegmentedByteArrayOutputStream");
+        }
+        long newCapacity = minCapacity <= sizeHint
+                ? sizeHint
+                : growthPolicy.newCapacity(buffer.length, (int) minCapacity);
+        resize((int) Math.min(Math.max(newCapacity, minCapacity), MAX_ARRAY_SIZE));
+    }
+
+    private void resize(int newCapacity) {
+        byte[] newBuffer = new byte[newCapacity];
+        if (size > 0) {
+            System.arraycopy(buffer, 0, newBuffer, 0, size);
         }
+        metrics.bufferGrown(buffer.length, newBuffer.length, size);
         buffer = newBuffer;
     }
 
+    /**
+     * Writes the content to {@code outputStream}, flushes it and leaves it open, then {@link #reset()}s
+     * this stream for the next message.
+     */
     public void writeTo(OutputStream outputStream) throws IOException {
-        outputStream.write(buffer, 0, position);
-        position = 0;
+        ensureIsOpen();
+        outputStream.write(buffer, 0, size);
         outputStream.flush();
-        outputStream.close();
+        reset();
+    }
+
+    /**
+     * Discards the content and keeps the array for the next use. After {@code trimAfter} uses in a row
+     * that filled at most a quarter of a grown array, it is shrunk to the high-water mark of those uses.
+     */
+    public void reset() throws IOException {
+        ensureIsOpen();
+        accountWritten();
+        if (trimAfter > 0 && buffer.length > initialCapacity && size <= buffer.length / 4) {
+            smallUsesHighWaterMark = Math.max(smallUsesHighWaterMark, size);
+            if (++smallUses >= trimAfter) {
+                buffer = new byte[Math.max(initialCapacity, smallUsesHighWaterMark)];
+                smallUses = smallUsesHighWaterMark = 0;
+            }
+        } else {
+            smallUses = smallUsesHighWaterMark = 0;
+        }
+        position = size = accounted = 0;
+    }
+
+    // resets and drops the state of the previous owner before the stream goes back into a pool
+    void recycle() throws IOException {
+        reset();
+        checksum = null;
+        metrics = StreamMetrics.NOOP;
+        sizeHint = 0;
+        trimAfter = DEFAULT_TRIM_AFTER;
+    }
+
+    /**
+     * Sets how many small uses in a row shrink a grown array on {@link #reset()}, 0 disables trimming.
+     */
+    public void setTrimAfter(int uses) {
+        if (uses < 0) {
+            throw new RuntimeException("Trim uses can not be less than 0");
+        }
+        this.trimAfter = uses;
+        smallUses = smallUsesHighWaterMark = 0;
     }
 
     public byte[] toByteArray() {
-        byte[] arrayToReturn = new byte[position];
-        System.arraycopy(buffer, 0, arrayToReturn, 0, position);
+        byte[] arrayToReturn = new byte[size];
+        System.arraycopy(buffer, 0, arrayToReturn, 0, size);
         return arrayToReturn;
     }
 
+    /**
+     * Returns a stream over the written bytes without copying them. Later writes do not change the
+     * view unless the stream is reused after {@link #reset()}.
+     */
+    public ByteArrayInputStream toInputStream() throws IOException {
+        ensureIsOpen();
+        return new ByteArrayInputStream(buffer, 0, size);
+    }
+
+    /**
+     * Returns a read-only view of the written bytes, see {@link #toInputStream()}.
+     */
+    public ByteBuffer toByteBuffer() throws IOException {
+        ensureIsOpen();
+        return ByteBuffer.wrap(buffer, 0, size).asReadOnlyBuffer();
+    }
+
+    /**
+     * Hands the internal array over to the caller, the written bytes are between 0 and the limit of
+     * the returned buffer. The stream starts over with a new array of the initial capacity.
+     */
+    public ByteBuffer detach() throws IOException {
+        ensureIsOpen();
+        accountWritten();
+        ByteBuffer detached = ByteBuffer.wrap(buffer, 0, size);
+        buffer = new byte[initialCapacity];
+        position = size = accounted = 0;
+        smallUses = smallUsesHighWaterMark = 0;
+        return detached;
+    }
+
+    // hashes and counts the bytes written since the last call
+    private void accountWritten() {
+        if (size > accounted) {
+            if (checksum != null) {
+                checksum.update(buffer, accounted, size - accounted);
+            }
+            metrics.bytesWritten(size - accounted);
+            accounted = size;
+        }
+    }
+
+    private void reserve(int length) throws IOException {
+        ensureIsOpen();
+        if (buffer.length - position < length) {
+            grow((long) position + length);
+        }
+        if (position > size) {
+            // a gap after seeking past the end may hold bytes of a truncated tail
+            Arrays.fill(buffer, size, position, (byte) 0);
+        }
+    }
+
+    private void advanceTo(int newPosition) {
+        position = newPosition;
+        if (position > size) {
+            size = position;
+        }
+    }
+
     private void ensureIsOpen() throws IOException {
         if (buffer == null) {
             throw new IOException("InputStream is closed");
@@ -0,0 +1,109 @@
+package com.trehubenko.bytearray;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pools reusable {@link ByteArrayOutputStream}s. A platform thread keeps one stream of its own, the
+ * rest are shared through lock-free slots. Virtual threads only use the shared slots, a thread-local
+ * stream per short-lived virtual thread would be garbage itself.
+ */
+public class ByteArrayOutputStreamPool {
+    private final static int DEFAULT_CAPACITY = 8 * 1024;
+    private final static int DEFAULT_SHARED_SLOTS = 16;
+    // Thread.isVirtual() is a preview API in Java 19, looked up so no --enable-preview is needed
+    private final static MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    private final ThreadLocal<ByteArrayOutputStream[]> threadLocalStream = ThreadLocal.withInitial(() -> new ByteArrayOutputStream[1]);
+    private final AtomicReferenceArray<ByteArrayOutputStream> sharedStreams;
+    private final int initialCapacity;
+
+    public ByteArrayOutputStreamPool() {
+        this(DEFAULT_CAPACITY, DEFAULT_SHARED_SLOTS);
+    }
+
+    public ByteArrayOutputStreamPool(int initialCapacity, int sharedSlots) {
+        if (initialCapacity < 0) {
+            throw new RuntimeException("Capacity can not be less than 0");
+        }
+        if (sharedSlots < 0) {
+            throw new RuntimeException("Shared slots can not be less than 0");
+        }
+        this.initialCapacity = initialCapacity;
+        this.sharedStreams = new AtomicReferenceArray<>(sharedSlots);
+    }
+
+    /**
+     * Returns an empty stream, a pooled one if there is any.
+     */
+    public ByteArrayOutputStream acquire() {
+        if (!isVirtualThread()) {
+            ByteArrayOutputStream[] local = threadLocalStream.get();
+            if (local[0] != null) {
+                ByteArrayOutputStream stream = local[0];
+                local[0] = null;
+                return stream;
+            }
+        }
+
+        for (int i = 0; i < sharedStreams.length(); i++) {
+            ByteArrayOutputStream stream = sharedStreams.get(i);
+            if (stream != null && sharedStreams.compareAndSet(i, stream, null)) {
+                return stream;
+            }
+        }
+        return new ByteArrayOutputStream(initialCapacity);
+    }
+
+    /**
+     * Resets {@code stream}, drops its checksum, metrics and size hint and keeps it for the next
+     * {@link #acquire()}. Closed streams and streams that do not fit are dropped. Views returned by
+     * {@code toInputStream()} or {@code toByteBuffer()} must not be used after the release.
+     */
+    public void release(ByteArrayOutputStream stream) {
+        if (!stream.isOpen()) {
+            return;
+        }
+        try {
+            stream.recycle();
+        } catch (IOException e) {
+            return;
+        }
+
+        if (!isVirtualThread()) {
+            ByteArrayOutputStream[] local = threadLocalStream.get();
+            if (local[0] == null) {
+                local[0] = stream;
+                return;
+            }
+        }
+
+        for (int i = 0; i < sharedStreams.length(); i++) {
+            if (sharedStreams.get(i) == null && sharedStreams.compareAndSet(i, null, stream)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean isVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
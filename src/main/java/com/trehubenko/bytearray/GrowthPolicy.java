@@ -0,0 +1,84 @@
+package com.trehubenko.bytearray;
+
+/**
+ * Chooses the new array capacity of a {@link ByteArrayOutputStream}. The stream copies its content
+ * once per growth, whatever capacity is returned.
+ */
+public interface GrowthPolicy {
+
+    GrowthPolicy DEFAULT = geometric(1.5);
+
+    /**
+     * Returns a capacity of at least {@code minCapacity}, values above the maximum array size are clamped
+     * by the stream.
+     */
+    long newCapacity(int currentCapacity, int minCapacity);
+
+    /**
+     * Multiplies the capacity by {@code factor} and adds 1 until {@code minCapacity} fits.
+     */
+    static GrowthPolicy geometric(double factor) {
+        if (!(factor > 1)) {
+            throw new RuntimeException("Grow factor must be greater than 1");
+        }
+        return (currentCapacity, minCapacity) -> {
+            long capacity = currentCapacity;
+            while (capacity < minCapacity) {
+                capacity = (long) (capacity * factor) + 1;
+            }
+            return capacity;
+        };
+    }
+
+    /**
+     * Grows to exactly {@code minCapacity}, cheapest when the writes are few and large.
+     */
+    static GrowthPolicy exact() {
+        return (currentCapacity, minCapacity) -> minCapacity;
+    }
+
+    static GrowthPolicy powerOfTwo() {
+        return powerOfTwo(1024 * 1024);
+    }
+
+    /**
+     * Rounds up to a power of two. Arrays of half a G1 region or more are humongous objects that take
+     * whole regions, so from there the capacity is rounded up to fill whole regions of
+     * {@code regionSize} bytes, less the array header.
+     */
+    static GrowthPolicy powerOfTwo(int regionSize) {
+        if (regionSize <= 0 || Integer.bitCount(regionSize) != 1) {
+            throw new RuntimeException("Region size must be a power of two");
+        }
+        int arrayHeader = 16;
+        return (currentCapacity, minCapacity) -> {
+            long required = Math.max(minCapacity, (long) currentCapacity + 1);
+            long capacity = Math.max(1L, Long.highestOneBit(required - 1) << 1);
+            if (capacity + arrayHeader >= regionSize / 2) {
+                long regions = (required + arrayHeader + regionSize - 1) / regionSize;
+                return regions * regionSize - arrayHeader;
+            }
+            return capacity;
+        };
+    }
+
+    /**
+     * Grows by half the capacity but by no more than {@code maxIncrement} bytes, so the unused tail
+     * of a large array stays bounded.
+     */
+    static GrowthPolicy cappedLinear(int maxIncrement) {
+        if (maxIncrement <= 0) {
+            throw new RuntimeException("Increment must be greater than 0");
+        }
+        return (currentCapacity, minCapacity) -> {
+            long capacity = currentCapacity;
+            while (capacity < minCapacity && capacity / 2 + 1 < maxIncrement) {
+                capacity += capacity / 2 + 1;
+            }
+            if (capacity < minCapacity) {
+                capacity += (minCapacity - capacity + maxIncrement - 1) / maxIncrement * maxIncrement;
+            }
+            return capacity;
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.trehubenko.bytearray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Reads the segments of a {@link SegmentedByteArrayOutputStream} in place, positions are longs.
+ */
+public class SegmentedByteArrayInputStream extends InputStream {
+
+    private List<byte[]> segments;
+    private final int lastSegmentLength;
+    private final long size;
+    private byte[] current;
+    private int segmentIndex;
+    private int segmentPosition;
+    private int segmentLimit;
+    private long position;
+
+    SegmentedByteArrayInputStream(List<byte[]> segments, int lastSegmentLength) {
+        this.segments = segments;
+        this.lastSegmentLength = lastSegmentLength;
+        long size = lastSegmentLength;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            size += segments.get(i).length;
+        }
+        this.size = size;
+        selectSegment(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureIsOpen();
+        if (!nextSegmentIfConsumed()) {
+            return -1;
+        }
+        position++;
+        return current[segmentPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len < 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "]" + ", off = " + off + ", len = " + len);
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        int readBytes = 0;
+        while (readBytes < len && nextSegmentIfConsumed()) {
+            int bytesToCopy = Math.min(len - readBytes, segmentLimit - segmentPosition);
+            System.arraycopy(current, segmentPosition, b, off + readBytes, bytesToCopy);
+            segmentPosition += bytesToCopy;
+            readBytes += bytesToCopy;
+        }
+        position += readBytes;
+        return readBytes == 0 ? -1 : readBytes;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureIsOpen();
+        long skipped = 0;
+        while (skipped < n && nextSegmentIfConsumed()) {
+            int bytesToSkip = (int) Math.min(n - skipped, segmentLimit - segmentPosition);
+            segmentPosition += bytesToSkip;
+            skipped += bytesToSkip;
+        }
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureIsOpen();
+        return (int) Math.min(size - position, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes the remaining part of every segment with one call.
+     */
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        ensureIsOpen();
+        long transferred = 0;
+        while (nextSegmentIfConsumed()) {
+            out.write(current, segmentPosition, segmentLimit - segmentPosition);
+            transferred += segmentLimit - segmentPosition;
+            segmentPosition = segmentLimit;
+        }
+        position += transferred;
+        return transferred;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        segments = null;
+        current = null;
+    }
+
+    // false at the end of the stream
+    private boolean nextSegmentIfConsumed() {
+        while (segmentPosition == segmentLimit) {
+            if (segmentIndex == segments.size() - 1) {
+                return false;
+            }
+            selectSegment(segmentIndex + 1);
+        }
+        return true;
+    }
+
+    private void selectSegment(int index) {
+        segmentIndex = index;
+        current = segments.get(index);
+        segmentPosition = 0;
+        segmentLimit = index == segments.size() - 1 ? lastSegmentLength : current.length;
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (segments == null) {
+            throw new IOException("InputStream is closed");
+        }
+    }
+}
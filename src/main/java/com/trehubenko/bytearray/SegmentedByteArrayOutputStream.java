@@ -0,0 +1,179 @@
+package com.trehubenko.bytearray;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the written bytes in a list of arrays, so the size is not limited by the maximum array length.
+ */
+public class SegmentedByteArrayOutputStream extends OutputStream {
+    private final static int DEFAULT_SEGMENT_CAPACITY = 8 * 1024;
+    private final static double GROW_FACTOR = 1.5;
+    // keeps geometric segments below the G1 humongous threshold of the smallest (1 MB) region
+    private final static int MAX_SEGMENT_CAPACITY = 256 * 1024;
+    private final static int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    // stays below IOV_MAX of common platforms
+    private final static int MAX_GATHERED_SEGMENTS = 1024;
+    private final double growFactor;
+    private List<byte[]> segments;
+    private byte[] current;
+    private int position;
+    private long filledSegmentsSize;
+
+    public SegmentedByteArrayOutputStream() {
+        this(DEFAULT_SEGMENT_CAPACITY, GROW_FACTOR);
+    }
+
+    public SegmentedByteArrayOutputStream(int segmentCapacity) {
+        this(segmentCapacity, 1);
+    }
+
+    public SegmentedByteArrayOutputStream(int segmentCapacity, double growFactor) {
+        if (segmentCapacity <= 0) {
+            throw new RuntimeException("Segment capacity must be greater than 0");
+        }
+        if (growFactor < 1) {
+            throw new RuntimeException("Grow factor can not be less than 1");
+        }
+        this.growFactor = growFactor;
+        this.current = new byte[segmentCapacity];
+        this.segments = new ArrayList<>();
+        segments.add(current);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureIsOpen();
+
+        if (position == current.length) {
+            addSegment();
+        }
+
+        current[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len <= 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "], off = " + off + ", len = " + len);
+        }
+
+        while (len > 0) {
+            if (position == current.length) {
+                addSegment();
+            }
+            int bytesToCopy = Math.min(len, current.length - position);
+            System.arraycopy(b, off, current, position, bytesToCopy);
+            position += bytesToCopy;
+            off += bytesToCopy;
+            len -= bytesToCopy;
+        }
+    }
+
+    @Override
+    public void close() {
+        segments = null;
+        current = null;
+    }
+
+    public long size() {
+        return filledSegmentsSize + position;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        ensureIsOpen();
+        for (byte[] segment : segments) {
+            int length = segment == current ? position : segment.length;
+            if (length > 0) {
+                outputStream.write(segment, 0, length);
+            }
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * Writes the segments with gathering writes, a {@link java.nio.channels.FileChannel} writes them
+     * without copying them into a single array first.
+     */
+    public long writeTo(GatheringByteChannel channel) throws IOException {
+        ensureIsOpen();
+        long written = 0;
+        for (int from = 0; from < segments.size(); from += MAX_GATHERED_SEGMENTS) {
+            int to = Math.min(from + MAX_GATHERED_SEGMENTS, segments.size());
+            ByteBuffer[] buffers = new ByteBuffer[to - from];
+            long remaining = 0;
+            for (int i = from; i < to; i++) {
+                byte[] segment = segments.get(i);
+                buffers[i - from] = ByteBuffer.wrap(segment, 0, segment == current ? position : segment.length);
+                remaining += buffers[i - from].remaining();
+            }
+            while (remaining > 0) {
+                long result = channel.write(buffers);
+                remaining -= result;
+                written += result;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Returns a stream over the written bytes that shares the segments, later writes are not visible.
+     */
+    public SegmentedByteArrayInputStream toInputStream() throws IOException {
+        ensureIsOpen();
+        List<byte[]> filledSegments = new ArrayList<>(segments);
+        return new SegmentedByteArrayInputStream(filledSegments, position);
+    }
+
+    /**
+     * Copies the written bytes into one array, {@link OutOfMemoryError} is thrown when they do not fit.
+     */
+    public byte[] toByteArray() {
+        if (size() > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Size " + size() + " exceeds the maximum array size");
+        }
+        byte[] arrayToReturn = new byte[(int) size()];
+        int copied = 0;
+        for (byte[] segment : segments) {
+            int length = segment == current ? position : segment.length;
+            System.arraycopy(segment, 0, arrayToReturn, copied, length);
+            copied += length;
+        }
+        return arrayToReturn;
+    }
+
+    private void addSegment() {
+        int capacity = current.length;
+        if (capacity < MAX_SEGMENT_CAPACITY) {
+            capacity = (int) Math.min(capacity * growFactor, MAX_SEGMENT_CAPACITY);
+        }
+        filledSegmentsSize += current.length;
+        current = new byte[capacity];
+        position = 0;
+        segments.add(current);
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (segments == null) {
+            throw new IOException("OutputStream is closed");
+        }
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    int getCurrentSegmentSize() {
+        return current.length;
+    }
+}
@@ -0,0 +1,170 @@
+package com.trehubenko.bytearray;
+
+import com.trehubenko.buffered.BufferedOutputStream;
+import com.trehubenko.buffered.MappedFileInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps the written bytes in memory up to {@code threshold} bytes. The write that would cross it moves
+ * the content to a temp file, which is appended to through a buffered {@link FileChannel} from then on
+ * and deleted on {@link #close()}.
+ */
+public class SpillingByteArrayOutputStream extends OutputStream {
+    private final static int DEFAULT_THRESHOLD = 1024 * 1024;
+    private final static int DEFAULT_CAPACITY = 8 * 1024;
+    private final int threshold;
+    private final Path directory;
+    private ByteArrayOutputStream memory;
+    private Path file;
+    private BufferedOutputStream fileStream;
+    private long size;
+    private boolean closed;
+
+    public SpillingByteArrayOutputStream() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public SpillingByteArrayOutputStream(int threshold) {
+        this(threshold, null);
+    }
+
+    /**
+     * @param directory where the temp file is created, {@code null} for the default temp directory
+     */
+    public SpillingByteArrayOutputStream(int threshold, Path directory) {
+        if (threshold < 0) {
+            throw new RuntimeException("Threshold can not be less than 0");
+        }
+        this.threshold = threshold;
+        this.directory = directory;
+        this.memory = new ByteArrayOutputStream(Math.min(threshold, DEFAULT_CAPACITY));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureIsOpen();
+        if (memory != null && size + 1 > threshold) {
+            spill();
+        }
+        if (memory != null) {
+            memory.write(b);
+        } else {
+            fileStream.write(b);
+        }
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len <= 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "], off = " + off + ", len = " + len);
+        }
+        if (memory != null && size + len > threshold) {
+            spill();
+        }
+        if (memory != null) {
+            memory.write(b, off, len);
+        } else {
+            fileStream.write(b, off, len);
+        }
+        size += len;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * Writes the content to {@code outputStream} and leaves it open, the content is kept.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = toInputStream()) {
+            inputStream.transferTo(outputStream);
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * Returns a stream over the content written so far. In memory it is a view of the array, after the
+     * spill the temp file is opened, so the stream must be read before this one is closed.
+     */
+    public InputStream toInputStream() throws IOException {
+        ensureIsOpen();
+        if (memory != null) {
+            return memory.toInputStream();
+        }
+        fileStream.flush();
+        return new MappedFileInputStream(file);
+    }
+
+    /**
+     * Deletes the temp file if the content was spilled.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (memory != null) {
+            memory.close();
+            memory = null;
+        } else {
+            try {
+                fileStream.close();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void spill() throws IOException {
+        Path spillFile = directory == null ? Files.createTempFile("spill", ".tmp") : Files.createTempFile(directory, "spill", ".tmp");
+        FileChannel channel = null;
+        BufferedOutputStream spillStream;
+        try {
+            channel = FileChannel.open(spillFile, StandardOpenOption.WRITE);
+            spillStream = new BufferedOutputStream(DEFAULT_CAPACITY, channel);
+            if (size > 0) {
+                spillStream.write(memory.toByteBuffer());
+            }
+        } catch (IOException | RuntimeException e) {
+            // the content stays in memory, a later write tries to spill again with a new file
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } finally {
+                Files.deleteIfExists(spillFile);
+            }
+            throw e;
+        }
+        file = spillFile;
+        fileStream = spillStream;
+        memory.close();
+        memory = null;
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (closed) {
+            throw new IOException("OutputStream is closed");
+        }
+    }
+}
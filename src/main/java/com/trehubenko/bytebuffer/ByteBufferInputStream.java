@@ -0,0 +1,79 @@
+package com.trehubenko.bytebuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+public class ByteBufferInputStream extends InputStream {
+
+    private ByteBuffer buffer;
+
+    public ByteBufferInputStream(ByteBuffer b) {
+        buffer = b.duplicate();
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureIsOpen();
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len < 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "]" + ", off = " + off + ", len = " + len);
+        }
+
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+
+        int readBytes = Math.min(len, buffer.remaining());
+        buffer.get(b, off, readBytes);
+        return readBytes;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureIsOpen();
+        return buffer.remaining();
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureIsOpen();
+        int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    public long transferTo(WritableByteChannel channel) throws IOException {
+        ensureIsOpen();
+        long transferred = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return transferred;
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("InputStream is closed");
+        }
+    }
+}
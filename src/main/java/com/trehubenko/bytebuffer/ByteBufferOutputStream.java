@@ -0,0 +1,122 @@
+package com.trehubenko.bytebuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+public class ByteBufferOutputStream extends OutputStream {
+    private final static int DEFAULT_CAPACITY = 8 * 1024;
+    private final static double GROW_FACTOR = 1.5;
+    private final static int TRANSFER_CAPACITY = 8 * 1024;
+    private ByteBuffer buffer;
+
+    public ByteBufferOutputStream() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ByteBufferOutputStream(int customCapacity) {
+        if (customCapacity < 0) {
+            throw new RuntimeException("Capacity can not be less than 0");
+        }
+        this.buffer = ByteBuffer.allocateDirect(customCapacity);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureIsOpen();
+
+        if (!buffer.hasRemaining()) {
+            grow(1);
+        }
+
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureIsOpen();
+        if (off > b.length | len > b.length | Math.abs(len + off) > b.length | off < 0 | len <= 0) {
+            throw new IndexOutOfBoundsException("array length = b[" + b.length + "], off = " + off + ", len = " + len);
+        }
+
+        if (len > buffer.remaining()) {
+            grow(len);
+        }
+        buffer.put(b, off, len);
+    }
+
+    public void write(ByteBuffer src) throws IOException {
+        ensureIsOpen();
+
+        if (src.remaining() > buffer.remaining()) {
+            grow(src.remaining());
+        }
+        buffer.put(src);
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    public int size() {
+        return buffer.position();
+    }
+
+    public ByteBuffer toByteBuffer() throws IOException {
+        ensureIsOpen();
+        return buffer.asReadOnlyBuffer().flip();
+    }
+
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer content = toByteBuffer();
+        while (content.hasRemaining()) {
+            channel.write(content);
+        }
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        ByteBuffer content = toByteBuffer();
+        byte[] transfer = new byte[Math.min(TRANSFER_CAPACITY, content.remaining())];
+        while (content.hasRemaining()) {
+            int length = Math.min(transfer.length, content.remaining());
+            content.get(transfer, 0, length);
+            outputStream.write(transfer, 0, length);
+        }
+        outputStream.flush();
+    }
+
+    public byte[] toByteArray() {
+        byte[] arrayToReturn = new byte[buffer.position()];
+        buffer.get(0, arrayToReturn);
+        return arrayToReturn;
+    }
+
+    // the previous direct buffer is released by its cleaner once it becomes unreachable
+    private void grow(int required) {
+        long minCapacity = (long) buffer.position() + required;
+        if (minCapacity > Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("Required buffer size is too large: " + minCapacity);
+        }
+        long capacity = Math.max((long) (buffer.capacity() * GROW_FACTOR) + 1, minCapacity);
+        ByteBuffer newBuffer = ByteBuffer.allocateDirect((int) Math.min(capacity, Integer.MAX_VALUE));
+        newBuffer.put(buffer.flip());
+        buffer = newBuffer;
+    }
+
+    private void ensureIsOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("OutputStream is closed");
+        }
+    }
+
+    int getBufferSize() {
+        return buffer.capacity();
+    }
+}
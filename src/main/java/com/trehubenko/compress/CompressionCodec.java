@@ -0,0 +1,22 @@
+package com.trehubenko.compress;
+
+/**
+ * Creates and recycles the compressors and decompressors of one format. Implementations are
+ * thread safe, the acquired instances are not and belong to a single stream until released.
+ */
+public interface CompressionCodec {
+
+    Compressor acquireCompressor();
+
+    /**
+     * Hands the compressor back, the caller must not touch it afterwards.
+     */
+    void release(Compressor compressor);
+
+    Decompressor acquireDecompressor();
+
+    /**
+     * Hands the decompressor back, the caller must not touch it afterwards.
+     */
+    void release(Decompressor decompressor);
+}
@@ -0,0 +1,32 @@
+package com.trehubenko.compress;
+
+import java.io.IOException;
+
+public interface Compressor {
+
+    /**
+     * Sets the bytes to compress, the array is read in place until {@link #needsInput()} returns true.
+     */
+    void setInput(byte[] b, int off, int len);
+
+    boolean needsInput();
+
+    /**
+     * Marks the end of the input, the following {@link #compress} calls emit the rest of the output.
+     */
+    void finish();
+
+    /**
+     * Writes compressed bytes into {@code b} and returns their count, 0 when more input is needed.
+     */
+    int compress(byte[] b, int off, int len) throws IOException;
+
+    boolean finished();
+
+    void reset();
+
+    /**
+     * Releases native resources, the compressor is unusable afterwards.
+     */
+    void end();
+}
@@ -0,0 +1,28 @@
+package com.trehubenko.compress;
+
+import java.io.IOException;
+
+public interface Decompressor {
+
+    /**
+     * Sets the bytes to decompress, the array is read in place until {@link #needsInput()} returns true.
+     */
+    void setInput(byte[] b, int off, int len);
+
+    boolean needsInput();
+
+    /**
+     * Writes decompressed bytes into {@code b} and returns their count, 0 when more input is needed
+     * or the end of the compressed data has been reached.
+     */
+    int decompress(byte[] b, int off, int len) throws IOException;
+
+    boolean finished();
+
+    void reset();
+
+    /**
+     * Releases native resources, the decompressor is unusable afterwards.
+     */
+    void end();
+}
@@ -0,0 +1,43 @@
+package com.trehubenko.compress;
+
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * zlib wrapped deflate, the format of {@link java.util.zip.DeflaterOutputStream}.
+ */
+public class DeflateCodec extends PooledCodec {
+
+    private final int level;
+
+    public DeflateCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public DeflateCodec(int level) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new RuntimeException("Invalid compression level " + level);
+        }
+        this.level = level;
+    }
+
+    @Override
+    Compressor newCompressor() {
+        return new DeflaterCompressor(this, new Deflater(level));
+    }
+
+    @Override
+    Decompressor newDecompressor() {
+        return new InflaterDecompressor(this, new Inflater());
+    }
+
+    @Override
+    boolean owns(Compressor compressor) {
+        return compressor instanceof DeflaterCompressor deflaterCompressor && deflaterCompressor.codec == this;
+    }
+
+    @Override
+    boolean owns(Decompressor decompressor) {
+        return decompressor instanceof InflaterDecompressor inflaterDecompressor && inflaterDecompressor.codec == this;
+    }
+}
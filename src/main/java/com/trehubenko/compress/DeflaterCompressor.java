@@ -0,0 +1,49 @@
+package com.trehubenko.compress;
+
+import java.util.zip.Deflater;
+
+class DeflaterCompressor implements Compressor {
+
+    final CompressionCodec codec;
+    private final Deflater deflater;
+
+    DeflaterCompressor(CompressionCodec codec, Deflater deflater) {
+        this.codec = codec;
+        this.deflater = deflater;
+    }
+
+    @Override
+    public void setInput(byte[] b, int off, int len) {
+        deflater.setInput(b, off, len);
+    }
+
+    @Override
+    public boolean needsInput() {
+        return deflater.needsInput();
+    }
+
+    @Override
+    public void finish() {
+        deflater.finish();
+    }
+
+    @Override
+    public int compress(byte[] b, int off, int len) {
+        return deflater.deflate(b, off, len);
+    }
+
+    @Override
+    public boolean finished() {
+        return deflater.finished();
+    }
+
+    @Override
+    public void reset() {
+        deflater.reset();
+    }
+
+    @Override
+    public void end() {
+        deflater.end();
+    }
+}
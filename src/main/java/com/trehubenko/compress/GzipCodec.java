@@ -0,0 +1,43 @@
+package com.trehubenko.compress;
+
+import java.util.zip.Deflater;
+
+/**
+ * GZIP members as written by {@link java.util.zip.GZIPOutputStream}. Decompression stops at the end
+ * of the first member.
+ */
+public class GzipCodec extends PooledCodec {
+
+    private final int level;
+
+    public GzipCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public GzipCodec(int level) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new RuntimeException("Invalid compression level " + level);
+        }
+        this.level = level;
+    }
+
+    @Override
+    Compressor newCompressor() {
+        return new GzipCompressor(this, new Deflater(level, true));
+    }
+
+    @Override
+    Decompressor newDecompressor() {
+        return new GzipDecompressor(this);
+    }
+
+    @Override
+    boolean owns(Compressor compressor) {
+        return compressor instanceof GzipCompressor gzipCompressor && gzipCompressor.codec == this;
+    }
+
+    @Override
+    boolean owns(Decompressor decompressor) {
+        return decompressor instanceof GzipDecompressor gzipDecompressor && gzipDecompressor.codec == this;
+    }
+}
@@ -0,0 +1,86 @@
+package com.trehubenko.compress;
+
+import com.trehubenko.primitive.Primitives;
+
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Raw deflate framed by the GZIP header and the CRC32 and size trailer.
+ */
+class GzipCompressor implements Compressor {
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int TRAILER_SIZE = 8;
+
+    final CompressionCodec codec;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] trailer = new byte[TRAILER_SIZE];
+    private int headerPosition;
+    private int trailerPosition = -1;
+
+    GzipCompressor(CompressionCodec codec, Deflater deflater) {
+        this.codec = codec;
+        this.deflater = deflater;
+    }
+
+    @Override
+    public void setInput(byte[] b, int off, int len) {
+        crc.update(b, off, len);
+        deflater.setInput(b, off, len);
+    }
+
+    @Override
+    public boolean needsInput() {
+        return deflater.needsInput();
+    }
+
+    @Override
+    public void finish() {
+        deflater.finish();
+    }
+
+    @Override
+    public int compress(byte[] b, int off, int len) {
+        int count = 0;
+        if (headerPosition < HEADER.length) {
+            int bytesToCopy = Math.min(HEADER.length - headerPosition, len);
+            System.arraycopy(HEADER, headerPosition, b, off, bytesToCopy);
+            headerPosition += bytesToCopy;
+            count += bytesToCopy;
+        }
+        if (headerPosition == HEADER.length && !deflater.finished()) {
+            count += deflater.deflate(b, off + count, len - count);
+        }
+        if (deflater.finished()) {
+            if (trailerPosition < 0) {
+                Primitives.putIntLE(trailer, 0, (int) crc.getValue());
+                Primitives.putIntLE(trailer, 4, (int) deflater.getBytesRead());
+                trailerPosition = 0;
+            }
+            int bytesToCopy = Math.min(TRAILER_SIZE - trailerPosition, len - count);
+            System.arraycopy(trailer, trailerPosition, b, off + count, bytesToCopy);
+            trailerPosition += bytesToCopy;
+            count += bytesToCopy;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean finished() {
+        return trailerPosition == TRAILER_SIZE;
+    }
+
+    @Override
+    public void reset() {
+        deflater.reset();
+        crc.reset();
+        headerPosition = 0;
+        trailerPosition = -1;
+    }
+
+    @Override
+    public void end() {
+        deflater.end();
+    }
+}
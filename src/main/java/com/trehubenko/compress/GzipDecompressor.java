@@ -0,0 +1,221 @@
+package com.trehubenko.compress;
+
+import com.trehubenko.primitive.Primitives;
+
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Parses the GZIP header and trailer incrementally, so input may be handed over in chunks of any size.
+ */
+class GzipDecompressor implements Decompressor {
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FIXED_HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final int FIXED = 0;
+    private static final int EXTRA_LENGTH = 1;
+    private static final int EXTRA = 2;
+    private static final int NAME = 3;
+    private static final int COMMENT = 4;
+    private static final int HEADER_CRC = 5;
+    private static final int BODY = 6;
+    private static final int TRAILER = 7;
+    private static final int DONE = 8;
+
+    final CompressionCodec codec;
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] header = new byte[FIXED_HEADER_SIZE];
+    private int stage;
+    private int collected;
+    private int remaining;
+    private int flags;
+    private byte[] input;
+    private int inputOffset;
+    private int inputLimit;
+
+    GzipDecompressor(CompressionCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void setInput(byte[] b, int off, int len) {
+        input = b;
+        inputOffset = off;
+        inputLimit = off + len;
+    }
+
+    @Override
+    public boolean needsInput() {
+        if (stage == DONE) {
+            return false;
+        }
+        return inputOffset == inputLimit && (stage != BODY || inflater.needsInput());
+    }
+
+    @Override
+    public int decompress(byte[] b, int off, int len) throws IOException {
+        int count = 0;
+        while (true) {
+            if (stage < BODY) {
+                if (!readHeader()) {
+                    return count;
+                }
+            } else if (stage == BODY) {
+                if (count == len) {
+                    return count;
+                }
+                if (inflater.needsInput()) {
+                    if (inputOffset == inputLimit) {
+                        return count;
+                    }
+                    inflater.setInput(input, inputOffset, inputLimit - inputOffset);
+                    inputOffset = inputLimit;
+                }
+                int inflated = inflate(b, off + count, len - count);
+                crc.update(b, off + count, inflated);
+                count += inflated;
+                if (inflater.finished()) {
+                    inputOffset = inputLimit - inflater.getRemaining();
+                    stage = TRAILER;
+                } else if (inflated == 0 && inflater.needsDictionary()) {
+                    throw new ZipException("Preset dictionary is not supported");
+                }
+            } else if (stage == TRAILER) {
+                if (!readTrailer()) {
+                    return count;
+                }
+            } else {
+                return count;
+            }
+        }
+    }
+
+    @Override
+    public boolean finished() {
+        return stage == DONE;
+    }
+
+    @Override
+    public void reset() {
+        inflater.reset();
+        crc.reset();
+        stage = FIXED;
+        collected = 0;
+        remaining = 0;
+        flags = 0;
+        input = null;
+        inputOffset = 0;
+        inputLimit = 0;
+    }
+
+    @Override
+    public void end() {
+        inflater.end();
+    }
+
+    private int inflate(byte[] b, int off, int len) throws ZipException {
+        try {
+            return inflater.inflate(b, off, len);
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid deflate data");
+        }
+    }
+
+    private boolean readHeader() throws ZipException {
+        while (stage < BODY) {
+            if (inputOffset == inputLimit) {
+                return false;
+            }
+            byte value = input[inputOffset++];
+            switch (stage) {
+                case FIXED -> {
+                    header[collected++] = value;
+                    if (collected == FIXED_HEADER_SIZE) {
+                        if ((Primitives.getShortLE(header, 0) & 0xFFFF) != GZIP_MAGIC || header[2] != Deflater.DEFLATED) {
+                            throw new ZipException("Not in GZIP format");
+                        }
+                        flags = header[3];
+                        collected = 0;
+                        advance(FIXED);
+                    }
+                }
+                case EXTRA_LENGTH -> {
+                    header[collected++] = value;
+                    if (collected == Short.BYTES) {
+                        remaining = Primitives.getShortLE(header, 0) & 0xFFFF;
+                        collected = 0;
+                        if (remaining > 0) {
+                            stage = EXTRA;
+                        } else {
+                            advance(EXTRA);
+                        }
+                    }
+                }
+                case EXTRA -> {
+                    if (--remaining == 0) {
+                        advance(EXTRA);
+                    }
+                }
+                case NAME, COMMENT -> {
+                    if (value == 0) {
+                        advance(stage);
+                    }
+                }
+                default -> {
+                    if (++collected == Short.BYTES) {
+                        collected = 0;
+                        advance(HEADER_CRC);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void advance(int from) {
+        int next = from + 1;
+        while (next < BODY && !isPresent(next)) {
+            next++;
+        }
+        stage = next;
+    }
+
+    private boolean isPresent(int stage) {
+        return switch (stage) {
+            case EXTRA_LENGTH -> (flags & FEXTRA) != 0;
+            case NAME -> (flags & FNAME) != 0;
+            case COMMENT -> (flags & FCOMMENT) != 0;
+            case HEADER_CRC -> (flags & FHCRC) != 0;
+            default -> false;
+        };
+    }
+
+    private boolean readTrailer() throws ZipException {
+        int bytesToCopy = Math.min(TRAILER_SIZE - collected, inputLimit - inputOffset);
+        System.arraycopy(input, inputOffset, header, collected, bytesToCopy);
+        inputOffset += bytesToCopy;
+        collected += bytesToCopy;
+        if (collected < TRAILER_SIZE) {
+            return false;
+        }
+        if (Primitives.getIntLE(header, 0) != (int) crc.getValue()) {
+            throw new ZipException("Corrupt GZIP trailer, CRC mismatch");
+        }
+        if (Primitives.getIntLE(header, 4) != (int) inflater.getBytesWritten()) {
+            throw new ZipException("Corrupt GZIP trailer, size mismatch");
+        }
+        collected = 0;
+        stage = DONE;
+        return true;
+    }
+}
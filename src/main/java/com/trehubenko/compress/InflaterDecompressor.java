@@ -0,0 +1,55 @@
+package com.trehubenko.compress;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+class InflaterDecompressor implements Decompressor {
+
+    final CompressionCodec codec;
+    private final Inflater inflater;
+
+    InflaterDecompressor(CompressionCodec codec, Inflater inflater) {
+        this.codec = codec;
+        this.inflater = inflater;
+    }
+
+    @Override
+    public void setInput(byte[] b, int off, int len) {
+        inflater.setInput(b, off, len);
+    }
+
+    @Override
+    public boolean needsInput() {
+        return inflater.needsInput();
+    }
+
+    @Override
+    public int decompress(byte[] b, int off, int len) throws IOException {
+        try {
+            int count = inflater.inflate(b, off, len);
+            if (count == 0 && inflater.needsDictionary()) {
+                throw new ZipException("Preset dictionary is not supported");
+            }
+            return count;
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid deflate data");
+        }
+    }
+
+    @Override
+    public boolean finished() {
+        return inflater.finished();
+    }
+
+    @Override
+    public void reset() {
+        inflater.reset();
+    }
+
+    @Override
+    public void end() {
+        inflater.end();
+    }
+}
@@ -0,0 +1,86 @@
+package com.trehubenko.compress;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps released instances in lock-free slots, instances that do not fit are ended.
+ */
+abstract class PooledCodec implements CompressionCodec {
+    private final static int DEFAULT_SLOTS = 16;
+
+    private final AtomicReferenceArray<Compressor> compressors;
+    private final AtomicReferenceArray<Decompressor> decompressors;
+
+    PooledCodec() {
+        this(DEFAULT_SLOTS);
+    }
+
+    PooledCodec(int slots) {
+        if (slots < 0) {
+            throw new RuntimeException("Slots can not be less than 0");
+        }
+        compressors = new AtomicReferenceArray<>(slots);
+        decompressors = new AtomicReferenceArray<>(slots);
+    }
+
+    abstract Compressor newCompressor();
+
+    abstract Decompressor newDecompressor();
+
+    abstract boolean owns(Compressor compressor);
+
+    abstract boolean owns(Decompressor decompressor);
+
+    @Override
+    public Compressor acquireCompressor() {
+        Compressor compressor = poll(compressors);
+        return compressor != null ? compressor : newCompressor();
+    }
+
+    @Override
+    public void release(Compressor compressor) {
+        if (owns(compressor)) {
+            compressor.reset();
+            if (offer(compressors, compressor)) {
+                return;
+            }
+        }
+        compressor.end();
+    }
+
+    @Override
+    public Decompressor acquireDecompressor() {
+        Decompressor decompressor = poll(decompressors);
+        return decompressor != null ? decompressor : newDecompressor();
+    }
+
+    @Override
+    public void release(Decompressor decompressor) {
+        if (owns(decompressor)) {
+            decompressor.reset();
+            if (offer(decompressors, decompressor)) {
+                return;
+            }
+        }
+        decompressor.end();
+    }
+
+    private static <T> T poll(AtomicReferenceArray<T> slots) {
+        for (int i = 0; i < slots.length(); i++) {
+            T instance = slots.get(i);
+            if (instance != null && slots.compareAndSet(i, instance, null)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    private static <T> boolean offer(AtomicReferenceArray<T> slots, T instance) {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, instance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
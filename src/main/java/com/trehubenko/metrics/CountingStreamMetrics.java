@@ -0,0 +1,102 @@
+package com.trehubenko.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sums up the events of any number of streams, safe to share between threads.
+ */
+public class CountingStreamMetrics implements StreamMetrics {
+
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder fills = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder bypassReads = new LongAdder();
+    private final LongAdder bypassWrites = new LongAdder();
+    private final LongAdder grows = new LongAdder();
+    private final LongAdder grownBytesCopied = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+
+    @Override
+    public void bytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    @Override
+    public void bytesWritten(long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    @Override
+    public void bufferFilled(int bytes, long nanos) {
+        fills.increment();
+        blockedNanos.add(nanos);
+    }
+
+    @Override
+    public void bufferFlushed(int bytes, long nanos) {
+        flushes.increment();
+        blockedNanos.add(nanos);
+    }
+
+    @Override
+    public void bypassRead(int bytes, long nanos) {
+        bypassReads.increment();
+        blockedNanos.add(nanos);
+    }
+
+    @Override
+    public void bypassWritten(long bytes, long nanos) {
+        bypassWrites.increment();
+        blockedNanos.add(nanos);
+    }
+
+    @Override
+    public void bufferGrown(int oldCapacity, int newCapacity, int copiedBytes) {
+        grows.increment();
+        grownBytesCopied.add(copiedBytes);
+    }
+
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long bytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public long fills() {
+        return fills.sum();
+    }
+
+    public long flushes() {
+        return flushes.sum();
+    }
+
+    public long bypassReads() {
+        return bypassReads.sum();
+    }
+
+    public long bypassWrites() {
+        return bypassWrites.sum();
+    }
+
+    /**
+     * Calls of the wrapped stream, fills, flushes and bypasses together.
+     */
+    public long underlyingCalls() {
+        return fills() + flushes() + bypassReads() + bypassWrites();
+    }
+
+    public long grows() {
+        return grows.sum();
+    }
+
+    public long grownBytesCopied() {
+        return grownBytesCopied.sum();
+    }
+
+    public long blockedNanos() {
+        return blockedNanos.sum();
+    }
+}
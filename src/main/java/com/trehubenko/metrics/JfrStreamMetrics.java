@@ -0,0 +1,113 @@
+package com.trehubenko.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Commits a Flight Recorder event for every call of the wrapped stream and every growth of a buffer.
+ * The events are disabled by default, enable {@code com.trehubenko.*} in the recording settings.
+ * Bytes read and written are not recorded, combine with {@link CountingStreamMetrics} if needed.
+ */
+public class JfrStreamMetrics implements StreamMetrics {
+
+    private final String stream;
+
+    public JfrStreamMetrics(String stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public void bufferFilled(int bytes, long nanos) {
+        commit("fill", bytes, nanos);
+    }
+
+    @Override
+    public void bufferFlushed(int bytes, long nanos) {
+        commit("flush", bytes, nanos);
+    }
+
+    @Override
+    public void bypassRead(int bytes, long nanos) {
+        commit("bypassRead", bytes, nanos);
+    }
+
+    @Override
+    public void bypassWritten(long bytes, long nanos) {
+        commit("bypassWrite", bytes, nanos);
+    }
+
+    @Override
+    public void bufferGrown(int oldCapacity, int newCapacity, int copiedBytes) {
+        BufferGrowEvent event = new BufferGrowEvent();
+        if (event.isEnabled()) {
+            event.stream = stream;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.copiedBytes = copiedBytes;
+            event.commit();
+        }
+    }
+
+    private void commit(String operation, long bytes, long nanos) {
+        StreamIoEvent event = new StreamIoEvent();
+        if (event.isEnabled()) {
+            event.stream = stream;
+            event.operation = operation;
+            event.bytes = bytes;
+            event.blocked = nanos;
+            event.commit();
+        }
+    }
+
+    @Name("com.trehubenko.StreamIo")
+    @Label("Stream I/O")
+    @Description("A call of the stream wrapped by a buffered stream")
+    @Category({"Trehubenko", "Streams"})
+    @Enabled(false)
+    @StackTrace(false)
+    static class StreamIoEvent extends Event {
+        @Label("Stream")
+        String stream;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Blocked")
+        @Timespan
+        long blocked;
+    }
+
+    @Name("com.trehubenko.BufferGrow")
+    @Label("Buffer Grow")
+    @Description("A buffer replaced by a bigger one, the content is copied")
+    @Category({"Trehubenko", "Streams"})
+    @Enabled(false)
+    @StackTrace(false)
+    static class BufferGrowEvent extends Event {
+        @Label("Stream")
+        String stream;
+
+        @Label("Old Capacity")
+        @DataAmount
+        int oldCapacity;
+
+        @Label("New Capacity")
+        @DataAmount
+        int newCapacity;
+
+        @Label("Copied")
+        @DataAmount
+        int copiedBytes;
+    }
+}
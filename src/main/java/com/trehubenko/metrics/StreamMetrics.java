@@ -0,0 +1,45 @@
+package com.trehubenko.metrics;
+
+/**
+ * Receives the I/O events of a stream. Streams time the calls to the wrapped stream only when their
+ * metrics are not {@link #NOOP}, the durations are 0 otherwise. Bytes read or written through a
+ * buffer are reported in blocks, at the latest when the stream is closed.
+ */
+public interface StreamMetrics {
+
+    StreamMetrics NOOP = new StreamMetrics() {
+    };
+
+    default void bytesRead(long bytes) {
+    }
+
+    default void bytesWritten(long bytes) {
+    }
+
+    /**
+     * One read of the wrapped stream into the buffer.
+     */
+    default void bufferFilled(int bytes, long nanos) {
+    }
+
+    /**
+     * One write of the buffer to the wrapped stream.
+     */
+    default void bufferFlushed(int bytes, long nanos) {
+    }
+
+    /**
+     * One read of the wrapped stream past the buffer.
+     */
+    default void bypassRead(int bytes, long nanos) {
+    }
+
+    /**
+     * One write to the wrapped stream past the buffer.
+     */
+    default void bypassWritten(long bytes, long nanos) {
+    }
+
+    default void bufferGrown(int oldCapacity, int newCapacity, int copiedBytes) {
+    }
+}
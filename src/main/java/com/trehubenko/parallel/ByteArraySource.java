@@ -0,0 +1,45 @@
+package com.trehubenko.parallel;
+
+import com.trehubenko.bytearray.ByteArrayInputStream;
+import com.trehubenko.primitive.Primitives;
+
+import java.util.Objects;
+
+/**
+ * Ranges of an array, every range is read through a {@link ByteArrayInputStream} view of the array.
+ */
+public class ByteArraySource implements ByteSource {
+
+    private final byte[] buffer;
+    private final int offset;
+    private final int length;
+
+    public ByteArraySource(byte[] b) {
+        this(b, 0, b.length);
+    }
+
+    public ByteArraySource(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        this.buffer = b;
+        this.offset = off;
+        this.length = len;
+    }
+
+    @Override
+    public long size() {
+        return length;
+    }
+
+    @Override
+    public long indexOf(byte value, long from, long to) {
+        Objects.checkFromToIndex(from, to, length);
+        int index = Primitives.indexOf(buffer, offset + (int) from, offset + (int) to, value);
+        return index < 0 ? -1 : index - offset;
+    }
+
+    @Override
+    public ByteArrayInputStream open(long offset, long length) {
+        Objects.checkFromIndexSize(offset, length, this.length);
+        return new ByteArrayInputStream(buffer, this.offset + (int) offset, (int) length);
+    }
+}
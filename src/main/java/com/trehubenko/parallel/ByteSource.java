@@ -0,0 +1,38 @@
+package com.trehubenko.parallel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Random access bytes that can be cut into ranges and read by several threads at once.
+ */
+public interface ByteSource {
+
+    int DEFAULT_RANGE_SIZE = 16 * 1024 * 1024;
+
+    long size();
+
+    /**
+     * Returns the index of the first {@code value} in {@code [from, to)}, -1 when there is none.
+     */
+    long indexOf(byte value, long from, long to) throws IOException;
+
+    /**
+     * Returns a stream over {@code length} bytes from {@code offset} that shares the underlying data.
+     */
+    InputStream open(long offset, long length) throws IOException;
+
+    default Stream<InputStream> ranges(byte delimiter) {
+        return ranges(delimiter, DEFAULT_RANGE_SIZE);
+    }
+
+    /**
+     * Returns a parallel stream of streams over consecutive ranges of about {@code rangeSize} bytes.
+     * Every range but the last one ends right after a {@code delimiter}, so no record is cut in two.
+     */
+    default Stream<InputStream> ranges(byte delimiter, int rangeSize) {
+        return StreamSupport.stream(new RangeSpliterator(this, delimiter, rangeSize), true);
+    }
+}
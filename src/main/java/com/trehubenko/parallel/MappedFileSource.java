@@ -0,0 +1,68 @@
+package com.trehubenko.parallel;
+
+import com.trehubenko.bytebuffer.ByteBufferInputStream;
+import com.trehubenko.primitive.Primitives;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Ranges of a file, every range is mapped on its own and read through a {@link ByteBufferInputStream}.
+ * A single range can not exceed 2 GB, the file can.
+ */
+public class MappedFileSource implements ByteSource, Closeable {
+
+    private static final int SCAN_WINDOW_SIZE = 8 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+
+    public MappedFileSource(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long indexOf(byte value, long from, long to) throws IOException {
+        Objects.checkFromToIndex(from, to, size);
+        byte[] window = new byte[SCAN_WINDOW_SIZE];
+        while (from < to) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(window, 0, (int) Math.min(window.length, to - from));
+            while (byteBuffer.hasRemaining()) {
+                if (channel.read(byteBuffer, from + byteBuffer.position()) < 0) {
+                    return -1;
+                }
+            }
+            int index = Primitives.indexOf(window, 0, byteBuffer.position(), value);
+            if (index >= 0) {
+                return from + index;
+            }
+            from += byteBuffer.position();
+        }
+        return -1;
+    }
+
+    @Override
+    public ByteBufferInputStream open(long offset, long length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, size);
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Range of " + length + " bytes can not be mapped, no delimiter within 2 GB");
+        }
+        return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
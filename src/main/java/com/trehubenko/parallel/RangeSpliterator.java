@@ -0,0 +1,85 @@
+package com.trehubenko.parallel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits a {@link ByteSource} in halves and advances over ranges of about {@code rangeSize} bytes.
+ * Every cut is placed right after a delimiter, searching forward from the nominal cut.
+ */
+public class RangeSpliterator implements Spliterator<InputStream> {
+
+    private final ByteSource source;
+    private final byte delimiter;
+    private final int rangeSize;
+    private long start;
+    private final long end;
+
+    public RangeSpliterator(ByteSource source, byte delimiter, int rangeSize) {
+        this(source, delimiter, rangeSize, 0, source.size());
+    }
+
+    private RangeSpliterator(ByteSource source, byte delimiter, int rangeSize, long start, long end) {
+        if (rangeSize <= 0) {
+            throw new RuntimeException("Range size must be greater than 0");
+        }
+        this.source = source;
+        this.delimiter = delimiter;
+        this.rangeSize = rangeSize;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super InputStream> action) {
+        if (start >= end) {
+            return false;
+        }
+        long rangeEnd = end - start <= rangeSize ? end : cutAfter(start + rangeSize);
+        try {
+            InputStream range = source.open(start, rangeEnd - start);
+            start = rangeEnd;
+            action.accept(range);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    @Override
+    public Spliterator<InputStream> trySplit() {
+        if (end - start < 2L * rangeSize) {
+            return null;
+        }
+        long cut = cutAfter(start + (end - start) / 2);
+        if (cut >= end) {
+            return null;
+        }
+        var prefix = new RangeSpliterator(source, delimiter, rangeSize, start, cut);
+        start = cut;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return (end - start + rangeSize - 1) / rangeSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    // the index after the first delimiter at or after from, end when there is none
+    private long cutAfter(long from) {
+        try {
+            long index = source.indexOf(delimiter, from - 1, end);
+            return index < 0 ? end : index + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
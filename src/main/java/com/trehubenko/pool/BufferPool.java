@@ -0,0 +1,16 @@
+package com.trehubenko.pool;
+
+public interface BufferPool {
+
+    BufferPool UNPOOLED = new UnpooledBufferPool();
+
+    /**
+     * Returns an array of at least {@code capacity} bytes. Its content is undefined.
+     */
+    byte[] acquire(int capacity);
+
+    /**
+     * Hands the array back to the pool, the caller must not touch it afterwards.
+     */
+    void release(byte[] buffer);
+}
@@ -0,0 +1,107 @@
+package com.trehubenko.pool;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pools arrays in power of two size classes from 512 bytes to 1 MB. Every thread keeps one array per
+ * size class, the rest are shared through lock-free slots. Bigger requests are allocated and dropped.
+ */
+public class DefaultBufferPool implements BufferPool {
+    private final static int MIN_SIZE_CLASS_SHIFT = 9;
+    private final static int MAX_SIZE_CLASS_SHIFT = 20;
+    private final static int SIZE_CLASS_COUNT = MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1;
+    private final static int DEFAULT_SHARED_SLOTS = 16;
+
+    private final ThreadLocal<byte[][]> threadLocalBuffers = ThreadLocal.withInitial(() -> new byte[SIZE_CLASS_COUNT][]);
+    private final AtomicReferenceArray<byte[]>[] sharedBuffers;
+
+    private final LongAdder threadLocalHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+
+    public DefaultBufferPool() {
+        this(DEFAULT_SHARED_SLOTS);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public DefaultBufferPool(int sharedSlotsPerSizeClass) {
+        if (sharedSlotsPerSizeClass < 0) {
+            throw new RuntimeException("Shared slots can not be less than 0");
+        }
+        sharedBuffers = new AtomicReferenceArray[SIZE_CLASS_COUNT];
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            sharedBuffers[i] = new AtomicReferenceArray<>(sharedSlotsPerSizeClass);
+        }
+    }
+
+    @Override
+    public byte[] acquire(int capacity) {
+        if (capacity < 0) {
+            throw new RuntimeException("Capacity can not be less than 0");
+        }
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass < 0) {
+            misses.increment();
+            return new byte[capacity];
+        }
+
+        byte[][] localBuffers = threadLocalBuffers.get();
+        byte[] buffer = localBuffers[sizeClass];
+        if (buffer != null) {
+            localBuffers[sizeClass] = null;
+            threadLocalHits.increment();
+            return buffer;
+        }
+
+        AtomicReferenceArray<byte[]> slots = sharedBuffers[sizeClass];
+        for (int i = 0; i < slots.length(); i++) {
+            buffer = slots.get(i);
+            if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+                sharedHits.increment();
+                return buffer;
+            }
+        }
+
+        misses.increment();
+        return new byte[1 << (sizeClass + MIN_SIZE_CLASS_SHIFT)];
+    }
+
+    @Override
+    public void release(byte[] buffer) {
+        releases.increment();
+        int sizeClass = sizeClass(buffer.length);
+        if (sizeClass < 0 || buffer.length != 1 << (sizeClass + MIN_SIZE_CLASS_SHIFT)) {
+            discards.increment();
+            return;
+        }
+
+        byte[][] localBuffers = threadLocalBuffers.get();
+        if (localBuffers[sizeClass] == null) {
+            localBuffers[sizeClass] = buffer;
+            return;
+        }
+
+        AtomicReferenceArray<byte[]> slots = sharedBuffers[sizeClass];
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+        discards.increment();
+    }
+
+    public PoolStatistics statistics() {
+        return new PoolStatistics(threadLocalHits.sum(), sharedHits.sum(), misses.sum(), releases.sum(), discards.sum());
+    }
+
+    private static int sizeClass(int capacity) {
+        if (capacity > 1 << MAX_SIZE_CLASS_SHIFT) {
+            return -1;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+        return Math.max(shift, MIN_SIZE_CLASS_SHIFT) - MIN_SIZE_CLASS_SHIFT;
+    }
+}
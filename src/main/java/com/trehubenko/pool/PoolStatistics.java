@@ -0,0 +1,13 @@
+package com.trehubenko.pool;
+
+public record PoolStatistics(long threadLocalHits, long sharedHits, long misses, long releases, long discards) {
+
+    public long hits() {
+        return threadLocalHits + sharedHits;
+    }
+
+    public double hitRatio() {
+        long acquisitions = hits() + misses;
+        return acquisitions == 0 ? 0 : (double) hits() / acquisitions;
+    }
+}
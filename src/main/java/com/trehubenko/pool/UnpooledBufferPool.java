@@ -0,0 +1,13 @@
+package com.trehubenko.pool;
+
+class UnpooledBufferPool implements BufferPool {
+
+    @Override
+    public byte[] acquire(int capacity) {
+        return new byte[capacity];
+    }
+
+    @Override
+    public void release(byte[] buffer) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.trehubenko.primitive;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Reads and writes fixed width numbers and LEB128 varints directly in byte arrays. Fixed width
+ * values go through {@link VarHandle} byte array views, callers check the bounds.
+ */
+public final class Primitives {
+
+    public static final int MAX_VAR_INT_SIZE = 5;
+    public static final int MAX_VAR_LONG_SIZE = 10;
+
+    private static final VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long BROADCAST = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private Primitives() {
+    }
+
+    public static void putShort(byte[] b, int off, short value) {
+        SHORT_BE.set(b, off, value);
+    }
+
+    public static void putShortLE(byte[] b, int off, short value) {
+        SHORT_LE.set(b, off, value);
+    }
+
+    public static void putInt(byte[] b, int off, int value) {
+        INT_BE.set(b, off, value);
+    }
+
+    public static void putIntLE(byte[] b, int off, int value) {
+        INT_LE.set(b, off, value);
+    }
+
+    public static void putLong(byte[] b, int off, long value) {
+        LONG_BE.set(b, off, value);
+    }
+
+    public static void putLongLE(byte[] b, int off, long value) {
+        LONG_LE.set(b, off, value);
+    }
+
+    public static short getShort(byte[] b, int off) {
+        return (short) SHORT_BE.get(b, off);
+    }
+
+    public static short getShortLE(byte[] b, int off) {
+        return (short) SHORT_LE.get(b, off);
+    }
+
+    public static int getInt(byte[] b, int off) {
+        return (int) INT_BE.get(b, off);
+    }
+
+    public static int getIntLE(byte[] b, int off) {
+        return (int) INT_LE.get(b, off);
+    }
+
+    public static long getLong(byte[] b, int off) {
+        return (long) LONG_BE.get(b, off);
+    }
+
+    public static long getLongLE(byte[] b, int off) {
+        return (long) LONG_LE.get(b, off);
+    }
+
+    /**
+     * Writes {@code value} as an unsigned LEB128 varint and returns the offset after it.
+     */
+    public static int putVarLong(byte[] b, int off, long value) {
+        while ((value & ~0x7FL) != 0) {
+            b[off++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        b[off++] = (byte) value;
+        return off;
+    }
+
+    public static int varLongSize(long value) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    /**
+     * Returns the length of the varint at {@code off}, or -1 when it is not complete before {@code limit}.
+     */
+    public static int varLongLength(byte[] b, int off, int limit) throws IOException {
+        int end = Math.min(limit, off + MAX_VAR_LONG_SIZE);
+        for (int i = off; i < end; i++) {
+            if (b[i] >= 0) {
+                return i - off + 1;
+            }
+        }
+        if (end - off == MAX_VAR_LONG_SIZE) {
+            throw new IOException("Malformed varint, more than " + MAX_VAR_LONG_SIZE + " bytes");
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes a varint whose length was checked by {@link #varLongLength(byte[], int, int)}.
+     */
+    public static long getVarLong(byte[] b, int off) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte next = b[off++];
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first {@code value} in {@code b[from, to)} or -1, comparing 8 bytes
+     * per step in a long (SWAR).
+     */
+    public static int indexOf(byte[] b, int from, int to, byte value) {
+        long pattern = BROADCAST * (value & 0xFF);
+        int i = from;
+        for (; i <= to - Long.BYTES; i += Long.BYTES) {
+            long word = (long) LONG_LE.get(b, i) ^ pattern;
+            long found = (word - BROADCAST) & ~word & HIGH_BITS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (b[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static int toVarInt(long value) throws IOException {
+        if ((value & ~0xFFFFFFFFL) != 0) {
+            throw new IOException("Malformed varint, value does not fit an int: " + value);
+        }
+        return (int) value;
+    }
+
+    public static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static int encodeZigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    public static int decodeZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
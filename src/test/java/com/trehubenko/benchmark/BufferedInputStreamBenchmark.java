@@ -0,0 +1,85 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.buffered.BufferedInputStream;
+import com.trehubenko.pool.BufferPool;
+import com.trehubenko.pool.DefaultBufferPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferedInputStreamBenchmark {
+
+    @State(Scope.Thread)
+    public static class Source {
+
+        @Param({"trehubenko", "pooled", "jdk"})
+        String implementation;
+
+        @Param({"512", "8192", "65536"})
+        int capacity;
+
+        byte[] payload;
+
+        BufferPool bufferPool = new DefaultBufferPool();
+
+        @Setup
+        public void setUp() {
+            payload = Payloads.ascii(Payloads.PAYLOAD_SIZE);
+        }
+
+        InputStream open() {
+            InputStream source = new ByteArrayInputStream(payload);
+            return switch (implementation) {
+                case "jdk" -> new java.io.BufferedInputStream(source, capacity);
+                case "pooled" -> new BufferedInputStream(capacity, source, bufferPool);
+                default -> new BufferedInputStream(capacity, source);
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chunk {
+
+        @Param({"1", "64", "1024", "65536", "1048576"})
+        int chunkSize;
+
+        byte[] destination;
+
+        @Setup
+        public void setUp() {
+            destination = new byte[chunkSize];
+        }
+    }
+
+    @Benchmark
+    public long readByOneByte(Source source) throws IOException {
+        long sum = 0;
+        try (InputStream inputStream = source.open()) {
+            int value;
+            while ((value = inputStream.read()) != -1) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readChunks(Source source, Chunk chunk) throws IOException {
+        long total = 0;
+        try (InputStream inputStream = source.open()) {
+            int readBytes;
+            while ((readBytes = inputStream.read(chunk.destination, 0, chunk.chunkSize)) > 0) {
+                total += readBytes;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,73 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.buffered.BufferedOutputStream;
+import com.trehubenko.pool.BufferPool;
+import com.trehubenko.pool.DefaultBufferPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferedOutputStreamBenchmark {
+
+    @State(Scope.Thread)
+    public static class Sink {
+
+        @Param({"trehubenko", "pooled", "jdk"})
+        String implementation;
+
+        @Param({"512", "8192", "65536"})
+        int capacity;
+
+        byte[] payload;
+
+        BufferPool bufferPool = new DefaultBufferPool();
+
+        @Setup
+        public void setUp() {
+            payload = Payloads.ascii(Payloads.PAYLOAD_SIZE);
+        }
+
+        OutputStream open() {
+            OutputStream sink = OutputStream.nullOutputStream();
+            return switch (implementation) {
+                case "jdk" -> new java.io.BufferedOutputStream(sink, capacity);
+                case "pooled" -> new BufferedOutputStream(capacity, sink, bufferPool);
+                default -> new BufferedOutputStream(capacity, sink);
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chunk {
+
+        @Param({"1", "64", "1024", "65536", "1048576"})
+        int chunkSize;
+    }
+
+    @Benchmark
+    public void writeByOneByte(Sink sink) throws IOException {
+        byte[] payload = sink.payload;
+        try (OutputStream outputStream = sink.open()) {
+            for (byte b : payload) {
+                outputStream.write(b);
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeChunks(Sink sink, Chunk chunk) throws IOException {
+        byte[] payload = sink.payload;
+        try (OutputStream outputStream = sink.open()) {
+            for (int off = 0; off < payload.length; off += chunk.chunkSize) {
+                outputStream.write(payload, off, Math.min(chunk.chunkSize, payload.length - off));
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.bytearray.ByteArrayInputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteArrayInputStreamBenchmark {
+
+    @State(Scope.Thread)
+    public static class Source {
+
+        @Param({"trehubenko", "jdk"})
+        String implementation;
+
+        byte[] payload;
+
+        @Setup
+        public void setUp() {
+            payload = Payloads.ascii(Payloads.PAYLOAD_SIZE);
+        }
+
+        InputStream open() {
+            return "jdk".equals(implementation)
+                    ? new java.io.ByteArrayInputStream(payload)
+                    : new ByteArrayInputStream(payload);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chunk {
+
+        @Param({"1", "64", "1024", "65536", "1048576"})
+        int chunkSize;
+
+        byte[] destination;
+
+        @Setup
+        public void setUp() {
+            destination = new byte[chunkSize];
+        }
+    }
+
+    @Benchmark
+    public long readByOneByte(Source source) throws IOException {
+        long sum = 0;
+        try (InputStream inputStream = source.open()) {
+            int value;
+            while ((value = inputStream.read()) != -1) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readChunks(Source source, Chunk chunk) throws IOException {
+        long total = 0;
+        try (InputStream inputStream = source.open()) {
+            int readBytes;
+            while ((readBytes = inputStream.read(chunk.destination, 0, chunk.chunkSize)) > 0) {
+                total += readBytes;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,69 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.bytearray.ByteArrayOutputStream;
+import com.trehubenko.bytearray.SegmentedByteArrayOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteArrayOutputStreamBenchmark {
+
+    @State(Scope.Thread)
+    public static class Sink {
+
+        @Param({"trehubenko", "segmented", "jdk"})
+        String implementation;
+
+        @Param({"64", "8192", "1048576"})
+        int capacity;
+
+        byte[] payload;
+
+        @Setup
+        public void setUp() {
+            payload = Payloads.ascii(Payloads.PAYLOAD_SIZE);
+        }
+
+        OutputStream open() {
+            return switch (implementation) {
+                case "jdk" -> new java.io.ByteArrayOutputStream(capacity);
+                case "segmented" -> new SegmentedByteArrayOutputStream(capacity, 2);
+                default -> new ByteArrayOutputStream(capacity);
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chunk {
+
+        @Param({"1", "64", "1024", "65536", "1048576"})
+        int chunkSize;
+    }
+
+    @Benchmark
+    public OutputStream writeByOneByte(Sink sink) throws IOException {
+        OutputStream outputStream = sink.open();
+        byte[] payload = sink.payload;
+        for (byte b : payload) {
+            outputStream.write(b);
+        }
+        return outputStream;
+    }
+
+    @Benchmark
+    public OutputStream writeChunks(Sink sink, Chunk chunk) throws IOException {
+        OutputStream outputStream = sink.open();
+        byte[] payload = sink.payload;
+        for (int off = 0; off < payload.length; off += chunk.chunkSize) {
+            outputStream.write(payload, off, Math.min(chunk.chunkSize, payload.length - off));
+        }
+        return outputStream;
+    }
+}
@@ -0,0 +1,81 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.buffered.CompressingBufferedOutputStream;
+import com.trehubenko.buffered.DecompressingBufferedInputStream;
+import com.trehubenko.compress.CompressionCodec;
+import com.trehubenko.compress.GzipCodec;
+import com.trehubenko.pool.BufferPool;
+import com.trehubenko.pool.DefaultBufferPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"trehubenko", "jdk"})
+    String implementation;
+
+    @Param({"64", "8192"})
+    int chunkSize;
+
+    byte[] payload;
+
+    byte[] compressed;
+
+    CompressionCodec codec = new GzipCodec(1);
+
+    BufferPool bufferPool = new DefaultBufferPool();
+
+    @Setup
+    public void setUp() throws IOException {
+        payload = Payloads.ascii(Payloads.PAYLOAD_SIZE);
+        var target = new ByteArrayOutputStream();
+        try (var outputStream = new GZIPOutputStream(target)) {
+            outputStream.write(payload);
+        }
+        compressed = target.toByteArray();
+    }
+
+    @Benchmark
+    public void compress() throws IOException {
+        OutputStream sink = OutputStream.nullOutputStream();
+        try (OutputStream outputStream = "jdk".equals(implementation)
+                ? new GZIPOutputStream(new java.io.BufferedOutputStream(sink)) {{
+            def.setLevel(1);
+        }}
+                : new CompressingBufferedOutputStream(8192, codec, sink, bufferPool)) {
+            for (int off = 0; off < payload.length; off += chunkSize) {
+                outputStream.write(payload, off, Math.min(chunkSize, payload.length - off));
+            }
+        }
+    }
+
+    @Benchmark
+    public long decompress() throws IOException {
+        byte[] chunk = new byte[chunkSize];
+        long total = 0;
+        var source = new ByteArrayInputStream(compressed);
+        try (InputStream inputStream = "jdk".equals(implementation)
+                ? new GZIPInputStream(new java.io.BufferedInputStream(source))
+                : new DecompressingBufferedInputStream(8192, codec, source, bufferPool)) {
+            int readBytes;
+            while ((readBytes = inputStream.read(chunk)) != -1) {
+                total += readBytes;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,87 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.bytearray.ByteArrayOutputStream;
+import com.trehubenko.bytearray.GrowthPolicy;
+import com.trehubenko.metrics.StreamMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills an 8 KB stream with {@code totalSize} bytes per policy. Besides the time, the {@code copiedBytes},
+ * {@code allocatedBytes} and {@code grows} counters add up what every policy costs in an iteration,
+ * divide them by the operation count to compare policies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrowthPolicyBenchmark {
+
+    @State(Scope.Thread)
+    public static class Sink {
+
+        @Param({"geometric", "exact", "powerOfTwo", "cappedLinear", "sizeHint"})
+        String policy;
+
+        @Param({"1048576", "16777216"})
+        int totalSize;
+
+        @Param({"1024", "1048576"})
+        int chunkSize;
+
+        byte[] chunk;
+
+        @Setup
+        public void setUp() {
+            chunk = Payloads.ascii(chunkSize);
+        }
+
+        ByteArrayOutputStream open() {
+            GrowthPolicy growthPolicy = switch (policy) {
+                case "exact" -> GrowthPolicy.exact();
+                case "powerOfTwo" -> GrowthPolicy.powerOfTwo();
+                case "cappedLinear" -> GrowthPolicy.cappedLinear(1024 * 1024);
+                default -> GrowthPolicy.DEFAULT;
+            };
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(8 * 1024, growthPolicy);
+            if (policy.equals("sizeHint")) {
+                outputStream.setSizeHint(totalSize);
+            }
+            return outputStream;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Copies implements StreamMetrics {
+        public long copiedBytes;
+        public long allocatedBytes;
+        public long grows;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            copiedBytes = allocatedBytes = grows = 0;
+        }
+
+        @Override
+        public void bufferGrown(int oldCapacity, int newCapacity, int copiedBytes) {
+            this.copiedBytes += copiedBytes;
+            this.allocatedBytes += newCapacity;
+            this.grows++;
+        }
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeChunks(Sink sink, Copies copies) throws IOException {
+        ByteArrayOutputStream outputStream = sink.open();
+        outputStream.setMetrics(copies);
+        byte[] chunk = sink.chunk;
+        for (int written = 0; written < sink.totalSize; written += chunk.length) {
+            outputStream.write(chunk, 0, Math.min(chunk.length, sink.totalSize - written));
+        }
+        return outputStream;
+    }
+}
@@ -0,0 +1,17 @@
+package com.trehubenko.benchmark;
+
+final class Payloads {
+
+    static final int PAYLOAD_SIZE = 1024 * 1024;
+
+    private Payloads() {
+    }
+
+    static byte[] ascii(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) ('a' + i % 26);
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,47 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.buffered.BufferedOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitivesBenchmark {
+
+    private static final int VALUES = 16 * 1024;
+
+    @Benchmark
+    public void writeLongBuffered() throws IOException {
+        try (var outputStream = new BufferedOutputStream(OutputStream.nullOutputStream())) {
+            for (int i = 0; i < VALUES; i++) {
+                outputStream.writeLong(i * 31L);
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeLongDataOutputStream() throws IOException {
+        try (var outputStream = new DataOutputStream(new java.io.BufferedOutputStream(OutputStream.nullOutputStream()))) {
+            for (int i = 0; i < VALUES; i++) {
+                outputStream.writeLong(i * 31L);
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeVarLongBuffered() throws IOException {
+        try (var outputStream = new BufferedOutputStream(OutputStream.nullOutputStream())) {
+            for (int i = 0; i < VALUES; i++) {
+                outputStream.writeVarLong(i * 31L);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.buffered.BufferedInputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReadLineBenchmark {
+
+    @Param({"16", "120", "4096"})
+    int lineLength;
+
+    byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = Payloads.ascii(Payloads.PAYLOAD_SIZE);
+        for (int i = lineLength; i < payload.length; i += lineLength + 1) {
+            payload[i] = '\n';
+        }
+    }
+
+    @Benchmark
+    public long readLineBufferedInputStream() throws IOException {
+        long total = 0;
+        try (var inputStream = new BufferedInputStream(new ByteArrayInputStream(payload))) {
+            String line;
+            while ((line = inputStream.readLine()) != null) {
+                total += line.length();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long readLineBufferedReader() throws IOException {
+        long total = 0;
+        try (var reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                total += line.length();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long indexOfNewLine() throws IOException {
+        long lines = 0;
+        try (var inputStream = new BufferedInputStream(new ByteArrayInputStream(payload))) {
+            int index;
+            while ((index = inputStream.indexOf((byte) '\n')) >= 0) {
+                inputStream.skip(index + 1);
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,73 @@
+package com.trehubenko.benchmark;
+
+import com.trehubenko.buffered.StripedBufferedOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads writing 100 byte records into one shared stream. The JDK BufferedOutputStream
+ * serializes its writers with a monitor, the striped stream gives every thread its own buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StripedBufferedOutputStreamBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Sink {
+
+        @Param({"striped", "jdk"})
+        String implementation;
+
+        @Param({"8192"})
+        int capacity;
+
+        OutputStream outputStream;
+
+        @Setup
+        public void setUp() {
+            outputStream = "jdk".equals(implementation)
+                    ? new java.io.BufferedOutputStream(OutputStream.nullOutputStream(), capacity)
+                    : new StripedBufferedOutputStream(capacity, OutputStream.nullOutputStream());
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            outputStream.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Record {
+        byte[] bytes = Payloads.ascii(100);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void writeRecords01Thread(Sink sink, Record record) throws IOException {
+        sink.outputStream.write(record.bytes, 0, record.bytes.length);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void writeRecords04Threads(Sink sink, Record record) throws IOException {
+        sink.outputStream.write(record.bytes, 0, record.bytes.length);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void writeRecords16Threads(Sink sink, Record record) throws IOException {
+        sink.outputStream.write(record.bytes, 0, record.bytes.length);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void writeRecords64Threads(Sink sink, Record record) throws IOException {
+        sink.outputStream.write(record.bytes, 0, record.bytes.length);
+    }
+}
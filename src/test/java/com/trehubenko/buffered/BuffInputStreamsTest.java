@@ -1,10 +1,30 @@
 package com.trehubenko.buffered;
 
 import com.trehubenko.AbstractInputStreamTest;
+import com.trehubenko.metrics.CountingStreamMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 public class BuffInputStreamsTest extends AbstractInputStreamTest {
@@ -13,4 +33,352 @@ public class BuffInputStreamsTest extends AbstractInputStreamTest {
     public BuffInputStreamsTest() throws FileNotFoundException {
         inputStream = new BufferedInputStream(new FileInputStream(Path.of("").toAbsolutePath() + Path.of("/src/main/resources/text.txt").toString()));
     }
+
+    @DisplayName("Test adaptive read(b[], off, len), buffer grows up to max capacity while the source fills it completely")
+    @Test
+    void testAdaptiveBufferGrowsForBulkReads() throws IOException {
+        byte[] source = new byte[1024 * 1024];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) i;
+        }
+
+        try (var bufferedInputStream = new BufferedInputStream(512, 64 * 1024, new ByteArrayInputStream(source))) {
+            byte[] destArray = new byte[source.length];
+            int count = 0;
+            int readBytes;
+            while (count < destArray.length
+                    && (readBytes = bufferedInputStream.read(destArray, count, Math.min(100, destArray.length - count))) > 0) {
+                count += readBytes;
+            }
+
+            assertEquals(64 * 1024, bufferedInputStream.getBufferSize());
+            assertArrayEquals(source, destArray);
+        }
+    }
+
+    @DisplayName("Test read(ByteBuffer[]), fills header and body from the buffer and then from the file channel")
+    @Test
+    void testReadByteBuffers() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new FileInputStream("src/main/resources/text.txt"))) {
+            assertEquals('T', (char) bufferedInputStream.read());
+            ByteBuffer header = ByteBuffer.allocate(4);
+            ByteBuffer body = ByteBuffer.allocate(20);
+
+            long readBytes = bufferedInputStream.read(new ByteBuffer[]{header, body});
+
+            assertEquals(11, readBytes);
+            assertEquals("his ", new String(header.array()));
+            assertEquals("is true", new String(body.array(), 0, body.position()));
+            assertEquals(-1, bufferedInputStream.read(new ByteBuffer[]{body}));
+        }
+    }
+
+    @DisplayName("Test read(ByteBuffer[]), scattering read from a stream without a channel")
+    @Test
+    void testReadByteBuffersWithoutChannel() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream(BYTES))) {
+            ByteBuffer header = ByteBuffer.allocate(2);
+            ByteBuffer body = ByteBuffer.allocate(20);
+
+            assertEquals(4, bufferedInputStream.read(new ByteBuffer[]{header, body}));
+            assertEquals(4, bufferedInputStream.read(new ByteBuffer[]{body}));
+            assertEquals("Th", new String(header.array()));
+            assertEquals("is is ", new String(body.array(), 0, body.position()));
+        }
+    }
+
+    @DisplayName("Test readInt()/readVarLong() etc., typed values written with BufferedOutputStream are read across buffer boundaries")
+    @Test
+    void testReadPrimitivesRoundTrip() throws IOException {
+        for (int capacity : new int[]{3, 11, 8 * 1024}) {
+            var target = new ByteArrayOutputStream();
+            try (var bufferedOutputStream = new BufferedOutputStream(capacity, target)) {
+                for (int i = 0; i < 100; i++) {
+                    bufferedOutputStream.write(i);
+                    bufferedOutputStream.writeInt(i * 1_000_003);
+                    bufferedOutputStream.writeLongLE(-i * 1_000_000_007L);
+                    bufferedOutputStream.writeShortLE(i);
+                    bufferedOutputStream.writeDouble(i / 3.0);
+                    bufferedOutputStream.writeVarLong(1L << (i % 64));
+                    bufferedOutputStream.writeSignedVarInt(-i);
+                }
+            }
+
+            try (var bufferedInputStream = new BufferedInputStream(capacity, new ByteArrayInputStream(target.toByteArray()))) {
+                for (int i = 0; i < 100; i++) {
+                    assertEquals(i, bufferedInputStream.read());
+                    assertEquals(i * 1_000_003, bufferedInputStream.readInt());
+                    assertEquals(-i * 1_000_000_007L, bufferedInputStream.readLongLE());
+                    assertEquals(i, bufferedInputStream.readShortLE());
+                    assertEquals(i / 3.0, bufferedInputStream.readDouble());
+                    assertEquals(1L << (i % 64), bufferedInputStream.readVarLong());
+                    assertEquals(-i, bufferedInputStream.readSignedVarInt());
+                }
+                assertThrows(EOFException.class, bufferedInputStream::readVarLong);
+            }
+        }
+    }
+
+    @DisplayName("Test readLine(), splits lines across buffer boundaries and drops \\n and \\r\\n")
+    @Test
+    void testReadLine() throws IOException {
+        String text = "first line\r\n\nsecond\nthe third line is longer then the buffer\r\nlast";
+        try (var bufferedInputStream = new BufferedInputStream(5, new ByteArrayInputStream(text.getBytes()))) {
+            assertEquals("first line", bufferedInputStream.readLine());
+            assertEquals("", bufferedInputStream.readLine());
+            assertEquals("second", bufferedInputStream.readLine());
+            assertEquals("the third line is longer then the buffer", bufferedInputStream.readLine());
+            assertEquals("last", bufferedInputStream.readLine());
+            assertNull(bufferedInputStream.readLine());
+        }
+    }
+
+    @DisplayName("Test readUntil(), copies records separated by a delimiter")
+    @Test
+    void testReadUntil() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream("a;bcdefg;;h".getBytes()))) {
+            var record = new ByteArrayOutputStream();
+
+            assertEquals(1, bufferedInputStream.readUntil((byte) ';', record));
+            assertEquals(6, bufferedInputStream.readUntil((byte) ';', record));
+            assertEquals(0, bufferedInputStream.readUntil((byte) ';', record));
+            assertEquals(1, bufferedInputStream.readUntil((byte) ';', record));
+            assertEquals(-1, bufferedInputStream.readUntil((byte) ';', record));
+            assertEquals("abcdefgh", record.toString());
+        }
+    }
+
+    @DisplayName("Test indexOf(), looks ahead without consuming and fills the buffer while searching")
+    @Test
+    void testIndexOf() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(8, new ByteArrayInputStream(BYTES))) {
+            assertEquals('T', bufferedInputStream.read());
+
+            assertEquals(3, bufferedInputStream.indexOf((byte) ' '));
+            assertEquals(7, bufferedInputStream.indexOf((byte) 't'));
+            assertEquals(-1, bufferedInputStream.indexOf((byte) 'e'));
+            assertEquals('h', bufferedInputStream.read());
+        }
+    }
+
+    @DisplayName("Test getChecksumValue(), covers consumed bytes only, read byte by byte, in bulk and typed")
+    @Test
+    void testChecksum() throws IOException {
+        byte[] source = new byte[1000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) (i * 31);
+        }
+        try (var bufferedInputStream = new BufferedInputStream(16, new ByteArrayInputStream(source))) {
+            bufferedInputStream.read();
+            bufferedInputStream.enableChecksum(new CRC32());
+            bufferedInputStream.read();
+            bufferedInputStream.read(new byte[5]);
+            bufferedInputStream.readLong();
+            bufferedInputStream.read(new byte[500]);
+            bufferedInputStream.indexOf((byte) 0);
+            bufferedInputStream.readInt();
+
+            var expected = new CRC32();
+            expected.update(source, 1, 1 + 5 + 8 + 500 + 4);
+            assertEquals(expected.getValue(), bufferedInputStream.getChecksumValue());
+
+            bufferedInputStream.readAllBytes();
+            expected.update(source, 519, source.length - 519);
+            assertEquals(expected.getValue(), bufferedInputStream.getChecksumValue());
+        }
+    }
+
+    @DisplayName("Test getChecksumValue(), covers scattering reads from a file")
+    @Test
+    void testChecksumScatteringRead() throws IOException {
+        byte[] content = Files.readAllBytes(Path.of("src/main/resources/text.txt"));
+        try (var bufferedInputStream = new BufferedInputStream(4, new FileInputStream("src/main/resources/text.txt"))) {
+            bufferedInputStream.enableChecksum();
+            bufferedInputStream.read();
+            bufferedInputStream.read(new ByteBuffer[]{ByteBuffer.allocate(2), ByteBuffer.allocate(6)});
+
+            var expected = new CRC32C();
+            expected.update(content, 0, 9);
+            assertEquals(expected.getValue(), bufferedInputStream.getChecksumValue());
+        }
+    }
+
+    @DisplayName("Test setMetrics(), fills, bypass reads and bytes read are counted")
+    @Test
+    void testMetrics() throws IOException {
+        var metrics = new CountingStreamMetrics();
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream(BYTES))) {
+            bufferedInputStream.setMetrics(metrics);
+            bufferedInputStream.read();
+            bufferedInputStream.read(new byte[2]);
+            bufferedInputStream.read(new byte[8]);
+
+            assertEquals(1, metrics.fills());
+            assertEquals(1, metrics.bypassReads());
+            assertEquals(2, metrics.underlyingCalls());
+            assertEquals(11, metrics.bytesRead());
+            bufferedInputStream.read();
+        }
+        assertEquals(12, metrics.bytesRead());
+    }
+
+    @DisplayName("Test readNBytes(), readAllBytes(), skip() and available() combine buffered bytes with the wrapped stream")
+    @Test
+    void testBulkOperations() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream(BYTES))) {
+            assertEquals('T', bufferedInputStream.read());
+            assertEquals(11, bufferedInputStream.available());
+            assertEquals("his i", new String(bufferedInputStream.readNBytes(5)));
+            assertEquals(2, bufferedInputStream.skip(2));
+            assertEquals("true", new String(bufferedInputStream.readAllBytes()));
+            assertEquals(0, bufferedInputStream.skip(3));
+            assertEquals(0, bufferedInputStream.readAllBytes().length);
+        }
+    }
+
+    @DisplayName("Test skip(), skipped bytes are hashed when a checksum is enabled")
+    @Test
+    void testSkipWithChecksum() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream(BYTES))) {
+            bufferedInputStream.enableChecksum();
+            bufferedInputStream.read();
+
+            assertEquals(10, bufferedInputStream.skip(10));
+            assertEquals('e', bufferedInputStream.read());
+            var expected = new CRC32C();
+            expected.update(BYTES);
+            assertEquals(expected.getValue(), bufferedInputStream.getChecksumValue());
+        }
+    }
+
+    @DisplayName("Test transferTo(), copies a file to a file and leaves the source at its end")
+    @Test
+    void testTransferToFile() throws IOException {
+        byte[] content = Files.readAllBytes(Path.of("src/main/resources/text.txt"));
+        Path target = Files.createTempFile("transfer", ".txt");
+        try (var bufferedInputStream = new BufferedInputStream(4, new FileInputStream("src/main/resources/text.txt"));
+             var outputStream = new FileOutputStream(target.toFile())) {
+            assertEquals(content[0], bufferedInputStream.read());
+
+            assertEquals(content.length - 1, bufferedInputStream.transferTo(outputStream));
+            assertEquals(-1, bufferedInputStream.read());
+            assertArrayEquals(Arrays.copyOfRange(content, 1, content.length), Files.readAllBytes(target));
+        } finally {
+            Files.delete(target);
+        }
+    }
+
+    @DisplayName("Test transferTo(), copies through the buffer and hashes when a checksum is enabled")
+    @Test
+    void testTransferToWithChecksum() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var bufferedInputStream = new BufferedInputStream(5, new ByteArrayInputStream(BYTES))) {
+            bufferedInputStream.enableChecksum();
+            bufferedInputStream.read();
+
+            assertEquals(BYTES.length - 1, bufferedInputStream.transferTo(target));
+            var expected = new CRC32C();
+            expected.update(BYTES);
+            assertEquals(expected.getValue(), bufferedInputStream.getChecksumValue());
+            assertEquals("his is true", target.toString());
+        }
+    }
+
+    @DisplayName("Test peek(), looks at the next byte without consuming it")
+    @Test
+    void testPeek() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(2, new ByteArrayInputStream("abc".getBytes()))) {
+            assertEquals('a', bufferedInputStream.peek());
+            assertEquals('a', bufferedInputStream.read());
+            assertEquals('b', bufferedInputStream.read());
+            assertEquals('c', bufferedInputStream.peek());
+            assertEquals('c', bufferedInputStream.read());
+            assertEquals(-1, bufferedInputStream.peek());
+        }
+    }
+
+    @DisplayName("Test peek(n), returns a view of the next bytes, the buffer is compacted and grown as needed")
+    @Test
+    void testPeekBytes() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream(BYTES))) {
+            bufferedInputStream.read();
+            ByteBuffer view = bufferedInputStream.peek(3);
+            assertTrue(view.isReadOnly());
+            assertEquals("his", StandardCharsets.US_ASCII.decode(view).toString());
+
+            assertEquals("his is t", StandardCharsets.US_ASCII.decode(bufferedInputStream.peek(8)).toString());
+            assertTrue(bufferedInputStream.getBufferSize() >= 8);
+            assertEquals('h', bufferedInputStream.read());
+
+            assertEquals(10, bufferedInputStream.peek(100).remaining());
+            assertEquals("is is true", new String(bufferedInputStream.readAllBytes()));
+        }
+    }
+
+    @DisplayName("Test mark() and reset(), bytes read after the mark are replayed across refills")
+    @Test
+    void testMarkReset() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream(BYTES))) {
+            assertTrue(bufferedInputStream.markSupported());
+            bufferedInputStream.read();
+            bufferedInputStream.mark(8);
+
+            byte[] destArray = new byte[7];
+            assertEquals(7, bufferedInputStream.readNBytes(destArray, 0, 7));
+            assertEquals("his is ", new String(destArray));
+            assertEquals(8, bufferedInputStream.getBufferSize());
+
+            bufferedInputStream.reset();
+            assertEquals("his is true", new String(bufferedInputStream.readAllBytes()));
+        }
+    }
+
+    @DisplayName("Test reset(), IOException thrown without a mark or when the mark limit was exceeded")
+    @Test
+    void testResetInvalidMark() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream(BYTES))) {
+            assertThrows(IOException.class, bufferedInputStream::reset);
+
+            bufferedInputStream.mark(2);
+            bufferedInputStream.readNBytes(6);
+
+            assertThrows(IOException.class, bufferedInputStream::reset);
+            assertEquals(4, bufferedInputStream.getBufferSize());
+        }
+    }
+
+    @DisplayName("Test mark() and reset(), replayed bytes are hashed once")
+    @Test
+    void testMarkResetWithChecksum() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new ByteArrayInputStream(BYTES))) {
+            bufferedInputStream.enableChecksum();
+            bufferedInputStream.mark(BYTES.length);
+            bufferedInputStream.readNBytes(9);
+            bufferedInputStream.reset();
+            bufferedInputStream.readAllBytes();
+
+            var expected = new CRC32C();
+            expected.update(BYTES);
+            assertEquals(expected.getValue(), bufferedInputStream.getChecksumValue());
+        }
+    }
+
+    @DisplayName("Test read(ByteBuffer), fills heap and direct buffers, reads large direct buffers from the file channel")
+    @Test
+    void testReadByteBuffer() throws IOException {
+        try (var bufferedInputStream = new BufferedInputStream(4, new FileInputStream("src/main/resources/text.txt"))) {
+            var heap = ByteBuffer.allocate(3);
+            var direct = ByteBuffer.allocateDirect(20);
+
+            assertEquals(3, bufferedInputStream.read(heap));
+            assertEquals(1, bufferedInputStream.read(direct));
+            assertEquals(8, bufferedInputStream.read(direct));
+            assertEquals(-1, bufferedInputStream.read(direct));
+
+            direct.flip();
+            byte[] rest = new byte[direct.remaining()];
+            direct.get(rest);
+            assertEquals("This is true", new String(heap.array()) + new String(rest));
+        }
+    }
 }
@@ -1,12 +1,20 @@
 package com.trehubenko.buffered;
 
+import com.trehubenko.metrics.CountingStreamMetrics;
+import com.trehubenko.pool.DefaultBufferPool;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -265,4 +273,161 @@ class BuffOutputStreamTest {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    @DisplayName("Test close(), pooled BufferedOutputStream flushes and returns its buffer to the pool")
+    @Test
+    void testCloseReleasesPooledBuffer() throws IOException {
+        var bufferPool = new DefaultBufferPool();
+        var bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(FILE_NAME), bufferPool);
+
+        bufferedOutputStream.write(BYTES);
+        bufferedOutputStream.close();
+        bufferedOutputStream.close();
+
+        assertEquals(12, new File(FILE_NAME).length());
+        assertEquals(1, bufferPool.statistics().releases());
+
+        new BufferedOutputStream(new FileOutputStream(FILE_NAME), bufferPool).close();
+
+        assertEquals(1, bufferPool.statistics().threadLocalHits());
+    }
+
+    @DisplayName("Test adaptive flush(), buffer shrinks down to min capacity for small records flushed one by one")
+    @Test
+    void testAdaptiveBufferShrinksForSmallRecords() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var bufferedOutputStream = new BufferedOutputStream(512, 64 * 1024, target)) {
+
+            assertEquals(8 * 1024, bufferedOutputStream.getBufferSize());
+
+            for (int i = 0; i < 100; i++) {
+                bufferedOutputStream.write(BYTES, 0, BYTES.length);
+                bufferedOutputStream.flush();
+            }
+
+            assertEquals(512, bufferedOutputStream.getBufferSize());
+            assertEquals(100 * BYTES.length, target.size());
+        }
+    }
+
+    @DisplayName("Test write(byte[], off, len), buffered bytes and a write that does not fit go out in one gathering write")
+    @Test
+    void testWriteWithThreeParametersGathersBufferAndArray() throws IOException {
+        var channel = new RecordingChannel();
+        try (var bufferedOutputStream = new BufferedOutputStream(8, channel)) {
+
+            bufferedOutputStream.write(BYTES, 0, 8);
+            bufferedOutputStream.write(BYTES, 8, 4);
+
+            assertEquals(List.of(2), channel.gatheredBufferCounts);
+            assertEquals(new String(BYTES), channel.content.toString());
+        }
+    }
+
+    @DisplayName("Test write(ByteBuffer[]), writes buffered bytes and every ByteBuffer to a file")
+    @Test
+    void testWriteByteBuffers() throws IOException {
+        try (var bufferedOutputStream = new BufferedOutputStream(8, new FileOutputStream(FILE_NAME))) {
+            bufferedOutputStream.write(BYTES, 0, 5);
+
+            long written = bufferedOutputStream.write(new ByteBuffer[]{ByteBuffer.wrap(BYTES, 5, 3), ByteBuffer.wrap(BYTES, 8, 4)});
+
+            assertEquals(7, written);
+            assertEquals(12, new File(FILE_NAME).length());
+        }
+    }
+
+
+    @DisplayName("Test getChecksumValue(), CRC32C over buffered, bypassed and gathered writes")
+    @Test
+    void testChecksum() throws IOException {
+        var expected = new CRC32C();
+        try (var bufferedOutputStream = new BufferedOutputStream(4, new ByteArrayOutputStream());
+             var gatheringOutputStream = new BufferedOutputStream(4, new RecordingChannel())) {
+            for (var outputStream : List.of(bufferedOutputStream, gatheringOutputStream)) {
+                outputStream.write(BYTES[0]);
+                outputStream.enableChecksum();
+                outputStream.write(BYTES, 1, 2);
+                outputStream.write(BYTES, 3, 8);
+                outputStream.writeInt(0x01020304);
+                outputStream.write(new ByteBuffer[]{ByteBuffer.wrap(BYTES, 0, 5)});
+            }
+            expected.update(BYTES, 1, 10);
+            expected.update(new byte[]{1, 2, 3, 4});
+            expected.update(BYTES, 0, 5);
+
+            assertEquals(expected.getValue(), bufferedOutputStream.getChecksumValue());
+            assertEquals(expected.getValue(), gatheringOutputStream.getChecksumValue());
+            assertThrows(RuntimeException.class, () -> new BufferedOutputStream(new ByteArrayOutputStream()).getChecksumValue());
+        }
+    }
+
+    @DisplayName("Test setMetrics(), flushes, bypass writes and bytes written are counted")
+    @Test
+    void testMetrics() throws IOException {
+        var metrics = new CountingStreamMetrics();
+        try (var bufferedOutputStream = new BufferedOutputStream(4, new ByteArrayOutputStream())) {
+            bufferedOutputStream.setMetrics(metrics);
+            bufferedOutputStream.write(BYTES, 0, 3);
+            bufferedOutputStream.write(BYTES, 3, 6);
+            bufferedOutputStream.write(BYTES, 9, 3);
+
+            assertEquals(1, metrics.flushes());
+            assertEquals(1, metrics.bypassWrites());
+            assertEquals(9, metrics.bytesWritten());
+        }
+        assertEquals(2, metrics.flushes());
+        assertEquals(12, metrics.bytesWritten());
+    }
+
+    @DisplayName("Test write(ByteBuffer), buffers small direct buffers and gathers large ones with the buffered bytes")
+    @Test
+    void testWriteByteBuffer() throws IOException {
+        var channel = new RecordingChannel();
+        try (var bufferedOutputStream = new BufferedOutputStream(4, channel)) {
+            assertEquals(3, bufferedOutputStream.write(ByteBuffer.wrap(BYTES, 0, 3)));
+            assertEquals(9, bufferedOutputStream.write(ByteBuffer.allocateDirect(9).put(BYTES, 3, 9).flip()));
+
+            assertEquals(List.of(2), channel.gatheredBufferCounts);
+            assertEquals(new String(BYTES), channel.content.toString());
+        }
+    }
+
+    private static class RecordingChannel implements GatheringByteChannel {
+        private final List<Integer> gatheredBufferCounts = new ArrayList<>();
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            gatheredBufferCounts.add(length);
+            long written = 0;
+            for (int i = offset; i < offset + length; i++) {
+                written += write(srcs[i]);
+            }
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int written = src.remaining();
+            byte[] bytes = new byte[written];
+            src.get(bytes);
+            content.writeBytes(bytes);
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.trehubenko.buffered;
+
+import com.trehubenko.compress.DeflateCodec;
+import com.trehubenko.compress.GzipCodec;
+import com.trehubenko.pool.DefaultBufferPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionStreamsTest {
+
+    private final static byte[] BYTES = text(50_000);
+
+    @DisplayName("Test write(), GZIP output is readable by GZIPInputStream")
+    @Test
+    void testGzipOutputReadableByJdk() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var outputStream = new CompressingBufferedOutputStream(16, new GzipCodec(), target)) {
+            outputStream.write(BYTES[0]);
+            outputStream.write(BYTES, 1, 10);
+            outputStream.write(BYTES, 11, BYTES.length - 11);
+        }
+
+        try (var inputStream = new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))) {
+            assertArrayEquals(BYTES, inputStream.readAllBytes());
+        }
+    }
+
+    @DisplayName("Test read(), GZIP written by GZIPOutputStream is decompressed, header fields are skipped")
+    @Test
+    void testGzipInputWrittenByJdk() throws IOException {
+        byte[] source = gzipWithHeaderFields(BYTES);
+
+        try (var inputStream = new DecompressingBufferedInputStream(3, new GzipCodec(), new ByteArrayInputStream(source))) {
+            assertArrayEquals(BYTES, inputStream.readAllBytes());
+        }
+        assertArrayEquals(BYTES, readByOneByte(new DecompressingBufferedInputStream(new GzipCodec(), new ByteArrayInputStream(source))));
+    }
+
+    @DisplayName("Test read(), deflate round trip with DeflaterOutputStream and InflaterInputStream")
+    @Test
+    void testDeflateRoundTripWithJdk() throws IOException {
+        var jdkTarget = new ByteArrayOutputStream();
+        try (var outputStream = new DeflaterOutputStream(jdkTarget)) {
+            outputStream.write(BYTES);
+        }
+        try (var inputStream = new DecompressingBufferedInputStream(new DeflateCodec(), new ByteArrayInputStream(jdkTarget.toByteArray()))) {
+            assertArrayEquals(BYTES, inputStream.readAllBytes());
+        }
+
+        var target = new ByteArrayOutputStream();
+        try (var outputStream = new CompressingBufferedOutputStream(new DeflateCodec(), target)) {
+            outputStream.write(BYTES);
+        }
+        try (var inputStream = new InflaterInputStream(new ByteArrayInputStream(target.toByteArray()))) {
+            assertArrayEquals(BYTES, inputStream.readAllBytes());
+        }
+    }
+
+    @DisplayName("Test finish(), empty input produces a valid GZIP member")
+    @Test
+    void testFinishEmptyGzip() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var outputStream = new CompressingBufferedOutputStream(new GzipCodec(), target)) {
+            outputStream.finish();
+            assertThrows(IOException.class, () -> outputStream.write(1));
+        }
+
+        try (var inputStream = new DecompressingBufferedInputStream(new GzipCodec(), new ByteArrayInputStream(target.toByteArray()))) {
+            assertEquals(-1, inputStream.read());
+        }
+    }
+
+    @DisplayName("Test read(), truncated and corrupted input throw")
+    @Test
+    void testReadBrokenInput() throws IOException {
+        byte[] source = gzipWithHeaderFields(BYTES);
+        byte[] truncated = Arrays.copyOf(source, source.length - 3);
+        byte[] corrupted = source.clone();
+        corrupted[corrupted.length - 8] ^= 1;
+
+        try (var inputStream = new DecompressingBufferedInputStream(new GzipCodec(), new ByteArrayInputStream(truncated))) {
+            assertThrows(EOFException.class, inputStream::readAllBytes);
+        }
+        try (var inputStream = new DecompressingBufferedInputStream(new GzipCodec(), new ByteArrayInputStream(corrupted))) {
+            assertThrows(ZipException.class, inputStream::readAllBytes);
+        }
+        try (var inputStream = new DecompressingBufferedInputStream(new GzipCodec(), new ByteArrayInputStream(BYTES))) {
+            assertThrows(ZipException.class, inputStream::read);
+        }
+    }
+
+    @DisplayName("Test close(), pooled buffers and codec instances are reused by the next stream")
+    @Test
+    void testPooledRoundTrip() throws IOException {
+        var bufferPool = new DefaultBufferPool();
+        var codec = new GzipCodec();
+
+        for (int i = 0; i < 3; i++) {
+            var target = new ByteArrayOutputStream();
+            try (var outputStream = new CompressingBufferedOutputStream(4096, codec, target, bufferPool)) {
+                outputStream.write(BYTES);
+            }
+            try (var inputStream = new DecompressingBufferedInputStream(4096, codec, new ByteArrayInputStream(target.toByteArray()), bufferPool)) {
+                assertArrayEquals(BYTES, inputStream.readAllBytes());
+            }
+        }
+        assertTrue(bufferPool.statistics().hits() >= 8);
+    }
+
+    private static byte[] gzipWithHeaderFields(byte[] bytes) throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var outputStream = new GZIPOutputStream(target)) {
+            outputStream.write(bytes);
+        }
+        byte[] plain = target.toByteArray();
+        // FEXTRA with 2 bytes of data, FNAME and FCOMMENT
+        byte[] fields = {2, 0, 'x', 'y', 'n', 0, 'c', 0};
+        byte[] source = new byte[plain.length + fields.length];
+        System.arraycopy(plain, 0, source, 0, 10);
+        source[3] = 4 | 8 | 16;
+        System.arraycopy(fields, 0, source, 10, fields.length);
+        System.arraycopy(plain, 10, source, 10 + fields.length, plain.length - 10);
+        return source;
+    }
+
+    private static byte[] readByOneByte(InputStream inputStream) throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (inputStream) {
+            int value;
+            while ((value = inputStream.read()) != -1) {
+                target.write(value);
+            }
+        }
+        return target.toByteArray();
+    }
+
+    private static byte[] text(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) ('a' + (i * 7 + i / 13) % 26);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,49 @@
+package com.trehubenko.buffered;
+
+import com.trehubenko.AbstractInputStreamTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MappedFileInputStreamTest extends AbstractInputStreamTest {
+
+    private final static Path FILE = Path.of("src/main/resources/text.txt");
+
+    public MappedFileInputStreamTest() throws IOException {
+        inputStream = new MappedFileInputStream(FILE);
+    }
+
+    @DisplayName("Test read(b[]), reads across mapped windows")
+    @Test
+    void testReadAcrossWindows() throws IOException {
+        try (var mappedFileInputStream = new MappedFileInputStream(5, FILE)) {
+            byte[] destArray = new byte[100];
+            int count = 0;
+            int readBytes;
+            while ((readBytes = mappedFileInputStream.read(destArray, count, destArray.length - count)) != -1) {
+                count += readBytes;
+            }
+
+            assertEquals(new String(BYTES), new String(destArray, 0, count));
+        }
+    }
+
+    @DisplayName("Test skip(), skips inside and past the current window without reading")
+    @Test
+    void testSkip() throws IOException {
+        try (var mappedFileInputStream = new MappedFileInputStream(5, FILE)) {
+            assertEquals('T', (char) mappedFileInputStream.read());
+            assertEquals(2, mappedFileInputStream.skip(2));
+            assertEquals('s', (char) mappedFileInputStream.read());
+            assertEquals(4, mappedFileInputStream.skip(4));
+            assertEquals('t', (char) mappedFileInputStream.read());
+            assertEquals(3, mappedFileInputStream.available());
+            assertEquals(3, mappedFileInputStream.skip(100));
+            assertEquals(-1, mappedFileInputStream.read());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.trehubenko.buffered;
+
+import com.trehubenko.AbstractInputStreamTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadAheadBufferedInputStreamTest extends AbstractInputStreamTest {
+
+    public ReadAheadBufferedInputStreamTest() throws FileNotFoundException {
+        inputStream = new ReadAheadBufferedInputStream(new FileInputStream("src/main/resources/text.txt"));
+    }
+
+    @DisplayName("Test read(b[], off, len), reads whole content through several small read-ahead buffers")
+    @Test
+    void testReadThroughSeveralBuffers() throws IOException {
+        byte[] source = new byte[10_000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) i;
+        }
+
+        try (var readAheadStream = new ReadAheadBufferedInputStream(7, 3, new ByteArrayInputStream(source))) {
+            byte[] destArray = new byte[source.length];
+            int count = 0;
+            int readBytes;
+            while ((readBytes = readAheadStream.read(destArray, count, Math.min(100, destArray.length - count))) > 0) {
+                count += readBytes;
+            }
+
+            assertEquals(source.length, count);
+            assertArrayEquals(source, destArray);
+            assertEquals(-1, readAheadStream.read());
+        }
+    }
+
+    @DisplayName("Test read(), IOException of the background read is thrown to the reader after the data read before it")
+    @Test
+    void testReadPropagatesIOException() throws IOException {
+        InputStream failingStream = new InputStream() {
+            private int reads;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (reads++ > 0) {
+                    throw new IOException("disk failure");
+                }
+                b[off] = 'T';
+                return 1;
+            }
+        };
+
+        try (var readAheadStream = new ReadAheadBufferedInputStream(8, 2, failingStream)) {
+            assertEquals('T', (char) readAheadStream.read());
+            IOException exception = assertThrows(IOException.class, readAheadStream::read);
+            assertEquals("disk failure", exception.getMessage());
+            assertThrows(IOException.class, readAheadStream::read);
+        }
+    }
+
+    @DisplayName("Test read(), background reads run on a thread from the given ThreadFactory")
+    @Test
+    void testReadUsesThreadFactory() throws IOException {
+        var createdThreads = new AtomicInteger();
+        try (var readAheadStream = new ReadAheadBufferedInputStream(4, 1, new ByteArrayInputStream(BYTES),
+                runnable -> {
+                    createdThreads.incrementAndGet();
+                    return new Thread(runnable);
+                })) {
+
+            assertEquals(new String(BYTES), new String(readAheadStream.readAllBytes()));
+            assertEquals(1, createdThreads.get());
+        }
+    }
+}
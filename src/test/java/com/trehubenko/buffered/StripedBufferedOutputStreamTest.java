@@ -0,0 +1,102 @@
+package com.trehubenko.buffered;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedBufferedOutputStreamTest {
+
+    private final static byte[] BYTES = ("This is true").getBytes();
+
+    @DisplayName("Test write(), IOException thrown when StripedBufferedOutputStream is closed")
+    @Test
+    void testWriteByOneByteThrowsIOException() throws IOException {
+        var outputStream = new StripedBufferedOutputStream(new ByteArrayOutputStream());
+        outputStream.close();
+
+        assertThrows(IOException.class, () -> outputStream.write(10), "OutputStream is closed");
+    }
+
+    @DisplayName("Test write(byte[], off, len), does not write until the buffer of the thread is full")
+    @Test
+    void testWriteWithThreeParametersIsBuffered() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var outputStream = new StripedBufferedOutputStream(16, target)) {
+            outputStream.write(BYTES, 0, 8);
+
+            assertEquals(0, target.size());
+
+            outputStream.write(BYTES, 8, 4);
+            outputStream.write(BYTES, 0, 8);
+
+            assertEquals("This is true", target.toString());
+
+            outputStream.flush();
+
+            assertEquals("This is trueThis is ", target.toString());
+        }
+    }
+
+    @DisplayName("Test write(byte[], off, len), records of concurrent writers are never split")
+    @Test
+    void testWriteWithThreeParametersKeepsRecordsWhole() throws Exception {
+        int threadCount = 8;
+        int recordsPerThread = 1_000;
+        int recordLength = 16;
+        var target = new ByteArrayOutputStream();
+        var outputStream = new StripedBufferedOutputStream(100, target);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            byte[] record = new byte[recordLength];
+            Arrays.fill(record, (byte) t);
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < recordsPerThread; i++) {
+                        outputStream.write(record, 0, record.length);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        outputStream.close();
+
+        byte[] written = target.toByteArray();
+        assertEquals(threadCount * recordsPerThread * recordLength, written.length);
+        int[] recordsByThread = new int[threadCount];
+        for (int off = 0; off < written.length; off += recordLength) {
+            for (int i = 1; i < recordLength; i++) {
+                assertEquals(written[off], written[off + i]);
+            }
+            recordsByThread[written[off]]++;
+        }
+        for (int records : recordsByThread) {
+            assertEquals(recordsPerThread, records);
+        }
+    }
+
+    @DisplayName("Test write(byte[], off, len), a record bigger then the buffer is written whole")
+    @Test
+    void testWriteWithThreeParametersWritesBigRecord() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var outputStream = new StripedBufferedOutputStream(4, target)) {
+            outputStream.write('>');
+            outputStream.write(BYTES);
+
+            assertEquals(">This is true", target.toString());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.trehubenko.buffered;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindBufferedOutputStreamTest {
+
+    private final static byte[] BYTES = ("This is true").getBytes();
+
+    @DisplayName("Test write(), IOException thrown when WriteBehindBufferedOutputStream is closed")
+    @Test
+    void testWriteByOneByteThrowsIOException() throws IOException {
+        var outputStream = new WriteBehindBufferedOutputStream(new ByteArrayOutputStream());
+        outputStream.close();
+
+        assertThrows(IOException.class, () -> outputStream.write(10), "OutputStream is closed");
+    }
+
+    @DisplayName("Test flush(), waits until every handed over buffer is written")
+    @Test
+    void testFlushWritesEverything() throws IOException {
+        byte[] source = new byte[10_000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) i;
+        }
+        var target = new ByteArrayOutputStream();
+
+        try (var outputStream = new WriteBehindBufferedOutputStream(7, 3, target)) {
+            outputStream.write(source[0]);
+            outputStream.write(source, 1, source.length - 1);
+            outputStream.flush();
+
+            assertArrayEquals(source, target.toByteArray());
+        }
+    }
+
+    @DisplayName("Test write(), the producer does not wait for the background write of a full buffer")
+    @Test
+    void testWriteDoesNotBlockOnSlowTarget() throws Exception {
+        var released = new CountDownLatch(1);
+        var target = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                try {
+                    released.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                super.write(b, off, len);
+            }
+        };
+
+        try (var outputStream = new WriteBehindBufferedOutputStream(4, 2, target)) {
+            outputStream.write(BYTES, 0, 8);
+
+            assertEquals(0, target.size());
+
+            released.countDown();
+            outputStream.write(BYTES, 8, 4);
+        }
+
+        assertEquals(new String(BYTES), target.toString());
+    }
+
+    @DisplayName("Test flush(), IOException of the background write is thrown to the producer")
+    @Test
+    void testFlushPropagatesIOException() {
+        OutputStream failingStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        var outputStream = new WriteBehindBufferedOutputStream(4, 1, failingStream);
+
+        IOException exception = assertThrows(IOException.class, () -> {
+            outputStream.write(BYTES);
+            outputStream.flush();
+        });
+        assertEquals("disk full", exception.getMessage());
+        assertThrows(IOException.class, outputStream::close);
+    }
+}
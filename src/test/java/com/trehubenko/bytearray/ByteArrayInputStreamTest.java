@@ -1,10 +1,158 @@
 package com.trehubenko.bytearray;
 
 import com.trehubenko.AbstractInputStreamTest;
+import com.trehubenko.metrics.CountingStreamMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class ByteArrayInputStreamTest extends AbstractInputStreamTest {
 
     public ByteArrayInputStreamTest() {
         inputStream = new ByteArrayInputStream(BYTES);
     }
-}
\ No newline at end of file
+
+    @DisplayName("Test ByteArrayInputStream(b[], off, len), reads only the range and shares the array")
+    @Test
+    void testRangeConstructorIsView() throws IOException {
+        byte[] source = "xxThis is truexx".getBytes();
+        var rangeStream = new ByteArrayInputStream(source, 2, 12);
+        source[2] = 't';
+
+        byte[] destArray = new byte[100];
+        int readBytes = rangeStream.read(destArray);
+
+        assertEquals(12, readBytes);
+        assertEquals("this is true", new String(destArray, 0, readBytes));
+        assertEquals(-1, rangeStream.read());
+    }
+
+    @DisplayName("Test ByteArrayInputStream(b[], off, len), IndexOutOfBoundsException is thrown when range is out of array")
+    @Test
+    void testRangeConstructorThrowsIndexOutOfBoundsException() {
+        assertThrows(IndexOutOfBoundsException.class, () -> new ByteArrayInputStream(BYTES, 10, 3));
+    }
+
+    @DisplayName("Test slice(), returns the next bytes as a separate stream and skips them")
+    @Test
+    void testSlice() throws IOException {
+        var byteArrayInputStream = (ByteArrayInputStream) inputStream;
+
+        ByteArrayInputStream first = byteArrayInputStream.slice(4);
+        byteArrayInputStream.read();
+        ByteArrayInputStream second = byteArrayInputStream.slice(2);
+
+        assertEquals("This", new String(first.readAllBytes()));
+        assertEquals("is", new String(second.readAllBytes()));
+        assertEquals(' ', (char) byteArrayInputStream.read());
+    }
+
+    @DisplayName("Test slice(), IndexOutOfBoundsException is thrown when length is bigger then remaining bytes")
+    @Test
+    void testSliceThrowsIndexOutOfBoundsException() {
+        var byteArrayInputStream = (ByteArrayInputStream) inputStream;
+
+        assertThrows(IndexOutOfBoundsException.class, () -> byteArrayInputStream.slice(13));
+    }
+
+    @DisplayName("Test duplicate(), returns a stream with its own position over the remaining bytes")
+    @Test
+    void testDuplicate() throws IOException {
+        var byteArrayInputStream = (ByteArrayInputStream) inputStream;
+        byteArrayInputStream.skip(5);
+
+        ByteArrayInputStream duplicate = byteArrayInputStream.duplicate();
+
+        assertEquals("is true", new String(duplicate.readAllBytes()));
+        assertEquals('i', (char) byteArrayInputStream.read());
+    }
+
+    @DisplayName("Test setMetrics(), bytes read are reported on close")
+    @Test
+    void testMetrics() throws IOException {
+        var metrics = new CountingStreamMetrics();
+        var byteArrayInputStream = new ByteArrayInputStream(BYTES, 1, 10);
+        byteArrayInputStream.read();
+        byteArrayInputStream.setMetrics(metrics);
+        byteArrayInputStream.read(new byte[4]);
+        byteArrayInputStream.readShort();
+        byteArrayInputStream.close();
+        byteArrayInputStream.close();
+
+        assertEquals(6, metrics.bytesRead());
+    }
+
+    @DisplayName("Test available(), skip(), readNBytes() and readAllBytes() work on the remaining range")
+    @Test
+    void testBulkOperations() throws IOException {
+        var byteArrayInputStream = new ByteArrayInputStream(BYTES, 1, 10);
+
+        assertEquals(10, byteArrayInputStream.available());
+        assertEquals(2, byteArrayInputStream.skip(2));
+        assertEquals(0, byteArrayInputStream.skip(-1));
+        assertEquals("s ", new String(byteArrayInputStream.readNBytes(2)));
+        assertEquals("is tru", new String(byteArrayInputStream.readAllBytes()));
+        assertEquals(0, byteArrayInputStream.available());
+        assertEquals(0, byteArrayInputStream.skip(5));
+        assertEquals(0, byteArrayInputStream.readNBytes(new byte[4], 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> byteArrayInputStream.readNBytes(-1));
+    }
+
+    @DisplayName("Test transferTo(), writes the remaining range in one call")
+    @Test
+    void testTransferTo() throws IOException {
+        var byteArrayInputStream = new ByteArrayInputStream(BYTES);
+        byteArrayInputStream.read();
+        var target = new java.io.ByteArrayOutputStream() {
+            int writes;
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes++;
+                super.write(b, off, len);
+            }
+        };
+
+        assertEquals(BYTES.length - 1, byteArrayInputStream.transferTo(target));
+        assertEquals(1, target.writes);
+        assertEquals("his is true", target.toString());
+        assertEquals(0, byteArrayInputStream.transferTo(target));
+    }
+
+    @DisplayName("Test SeekableByteChannel, reads into ByteBuffers and seeks within the range")
+    @Test
+    void testSeekableByteChannel() throws IOException {
+        var channel = new ByteArrayInputStream(BYTES, 2, 10);
+        var dst = ByteBuffer.allocateDirect(4);
+
+        assertEquals(10, channel.size());
+        assertEquals(4, channel.read(dst));
+        assertEquals("is i", new String(toArray(dst)));
+        assertEquals(4, channel.position());
+
+        channel.position(8);
+        dst.clear();
+        assertEquals(2, channel.read(dst));
+        assertEquals("ue", new String(toArray(dst)));
+        assertEquals(-1, channel.read(dst.clear()));
+        assertEquals(0, channel.read(ByteBuffer.allocate(0)));
+
+        channel.position(100);
+        assertEquals(10, channel.position());
+        assertThrows(NonWritableChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+        channel.close();
+        assertFalse(channel.isOpen());
+    }
+
+    private static byte[] toArray(ByteBuffer byteBuffer) {
+        byteBuffer.flip();
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.trehubenko.bytearray;
+
+import com.trehubenko.metrics.CountingStreamMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteArrayOutputStreamPoolTest {
+    private final static byte[] BYTES = ("This is true").getBytes();
+
+    @DisplayName("Test acquire(), returns the released stream empty on the same thread")
+    @Test
+    void testAcquireReusesThreadLocalStream() throws IOException {
+        var pool = new ByteArrayOutputStreamPool(4, 0);
+        var stream = pool.acquire();
+        stream.write(BYTES);
+
+        pool.release(stream);
+
+        var reused = pool.acquire();
+        assertSame(stream, reused);
+        assertEquals(0, reused.toByteArray().length);
+        assertNotSame(reused, pool.acquire());
+    }
+
+    @DisplayName("Test acquire(), streams released beyond the thread-local one are shared with other threads")
+    @Test
+    void testAcquireFromSharedSlots() throws InterruptedException {
+        var pool = new ByteArrayOutputStreamPool(4, 1);
+        var first = pool.acquire();
+        var second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+
+        var acquired = new AtomicReference<ByteArrayOutputStream>();
+        var thread = new Thread(() -> acquired.set(pool.acquire()));
+        thread.start();
+        thread.join();
+
+        assertSame(second, acquired.get());
+    }
+
+    @DisplayName("Test release(), the checksum and metrics of the previous owner are dropped")
+    @Test
+    void testReleaseDropsPreviousOwnerState() throws IOException {
+        var pool = new ByteArrayOutputStreamPool(4, 0);
+        var metrics = new CountingStreamMetrics();
+        var stream = pool.acquire();
+        stream.enableChecksum();
+        stream.setMetrics(metrics);
+        stream.write(BYTES);
+
+        pool.release(stream);
+        var reused = pool.acquire();
+        reused.write(BYTES);
+        reused.close();
+
+        assertSame(stream, reused);
+        assertThrows(RuntimeException.class, reused::getChecksumValue, "Checksum is not enabled");
+        assertEquals(BYTES.length, metrics.bytesWritten());
+    }
+
+    @DisplayName("Test release(), closed streams are dropped")
+    @Test
+    void testReleaseDropsClosedStream() {
+        var pool = new ByteArrayOutputStreamPool(4, 1);
+        var stream = pool.acquire();
+        stream.close();
+
+        pool.release(stream);
+
+        assertNotSame(stream, pool.acquire());
+    }
+
+    @DisplayName("Test constructor, RuntimeException is thrown when shared slots are less than 0")
+    @Test
+    void testConstructorThrowsRuntimeException() {
+        assertThrows(RuntimeException.class, () -> new ByteArrayOutputStreamPool(4, -1));
+    }
+}
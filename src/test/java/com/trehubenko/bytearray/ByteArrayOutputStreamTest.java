@@ -1,11 +1,16 @@
 package com.trehubenko.bytearray;
 
+import com.trehubenko.metrics.CountingStreamMetrics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonReadableChannelException;
+import java.util.zip.CRC32C;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -215,4 +220,276 @@ class ByteArrayOutputStreamTest {
         file.delete();
     }
 
-}
\ No newline at end of file
+
+    @DisplayName("Test writeInt()/writeVarLong() etc., typed values read back with ByteArrayInputStream")
+    @Test
+    void testWritePrimitivesRoundTrip() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(0)) {
+            byteArrayOutputStream.writeShort(-2);
+            byteArrayOutputStream.writeIntLE(0x01020304);
+            byteArrayOutputStream.writeLong(Long.MIN_VALUE);
+            byteArrayOutputStream.writeDoubleLE(Math.PI);
+            byteArrayOutputStream.writeFloat(1.5f);
+            byteArrayOutputStream.writeVarInt(300);
+            byteArrayOutputStream.writeSignedVarInt(-64);
+            byteArrayOutputStream.writeVarLong(-1);
+            byteArrayOutputStream.writeSignedVarLong(Long.MIN_VALUE);
+
+            byte[] resultArray = byteArrayOutputStream.toByteArray();
+            assertEquals(4, resultArray[2]);
+
+            var byteArrayInputStream = new ByteArrayInputStream(resultArray);
+            assertEquals(-2, byteArrayInputStream.readShort());
+            assertEquals(0x01020304, byteArrayInputStream.readIntLE());
+            assertEquals(Long.MIN_VALUE, byteArrayInputStream.readLong());
+            assertEquals(Math.PI, byteArrayInputStream.readDoubleLE());
+            assertEquals(1.5f, byteArrayInputStream.readFloat());
+            assertEquals(300, byteArrayInputStream.readVarInt());
+            assertEquals(-64, byteArrayInputStream.readSignedVarInt());
+            assertEquals(-1, byteArrayInputStream.readVarLong());
+            assertEquals(Long.MIN_VALUE, byteArrayInputStream.readSignedVarLong());
+            assertThrows(EOFException.class, byteArrayInputStream::readInt);
+        }
+    }
+
+    @DisplayName("Test getChecksumValue(), CRC32C of the bytes written since enabling, writeTo keeps the value")
+    @Test
+    void testChecksum() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(2)) {
+            byteArrayOutputStream.write(BYTES[0]);
+            byteArrayOutputStream.enableChecksum();
+            byteArrayOutputStream.write(BYTES, 1, BYTES.length - 1);
+            byteArrayOutputStream.writeTo(new java.io.ByteArrayOutputStream());
+            byteArrayOutputStream.write(BYTES);
+
+            var expected = new CRC32C();
+            expected.update(BYTES, 1, BYTES.length - 1);
+            expected.update(BYTES);
+            assertEquals(expected.getValue(), byteArrayOutputStream.getChecksumValue());
+        }
+    }
+
+    @DisplayName("Test setMetrics(), grow events with copied bytes and bytes written")
+    @Test
+    void testMetrics() throws IOException {
+        var metrics = new CountingStreamMetrics();
+        var byteArrayOutputStream = new ByteArrayOutputStream(2);
+        byteArrayOutputStream.setMetrics(metrics);
+        for (byte b : BYTES) {
+            byteArrayOutputStream.write(b);
+        }
+        byteArrayOutputStream.writeTo(new java.io.ByteArrayOutputStream());
+        byteArrayOutputStream.writeInt(1);
+        byteArrayOutputStream.close();
+
+        // 2 -> 4 -> 7 -> 11 -> 17
+        assertEquals(4, metrics.grows());
+        assertEquals(2 + 4 + 7 + 11, metrics.grownBytesCopied());
+        assertEquals(BYTES.length + Integer.BYTES, metrics.bytesWritten());
+    }
+
+    @DisplayName("Test toInputStream() and toByteBuffer(), views share the array and cover the written bytes")
+    @Test
+    void testViews() throws IOException {
+        byteArrayOutputStream.write(BYTES);
+
+        var byteArrayInputStream = byteArrayOutputStream.toInputStream();
+        var byteBuffer = byteArrayOutputStream.toByteBuffer();
+        byteArrayOutputStream.write(BYTES);
+
+        assertEquals(new String(BYTES), new String(byteArrayInputStream.readAllBytes()));
+        assertTrue(byteBuffer.isReadOnly());
+        assertEquals(BYTES.length, byteBuffer.remaining());
+        assertEquals(BYTES[3], byteBuffer.get(3));
+    }
+
+    @DisplayName("Test detach(), hands over the internal array and starts over with the initial capacity")
+    @Test
+    void testDetach() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(4)) {
+            byteArrayOutputStream.write(BYTES);
+
+            var detached = byteArrayOutputStream.detach();
+
+            assertEquals(BYTES.length, detached.remaining());
+            assertTrue(detached.hasArray());
+            assertEquals(new String(BYTES), new String(detached.array(), 0, detached.limit()));
+            assertEquals(4, byteArrayOutputStream.getBufferSize());
+            assertEquals(0, byteArrayOutputStream.toByteArray().length);
+
+            byteArrayOutputStream.write(BYTES, 0, 2);
+            assertEquals("Th", new String(byteArrayOutputStream.toByteArray()));
+            assertEquals(new String(BYTES), new String(detached.array(), 0, detached.limit()));
+        }
+    }
+
+    @DisplayName("Test write(ByteBuffer), copies heap and direct buffers and grows the array")
+    @Test
+    void testWriteByteBuffer() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(2)) {
+            var direct = ByteBuffer.allocateDirect(BYTES.length).put(BYTES).flip();
+
+            assertEquals(BYTES.length, byteArrayOutputStream.write(direct));
+            assertEquals(5, byteArrayOutputStream.write(ByteBuffer.wrap(BYTES, 0, 5)));
+            assertFalse(direct.hasRemaining());
+            assertEquals(new String(BYTES) + "This ", new String(byteArrayOutputStream.toByteArray()));
+            assertTrue(byteArrayOutputStream.isOpen());
+        }
+    }
+
+    @DisplayName("Test writeTo(), leaves the target open and resets the stream")
+    @Test
+    void testWriteToLeavesTargetOpen() throws IOException {
+        var target = new java.io.ByteArrayOutputStream() {
+            boolean closed;
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+        byteArrayOutputStream.write(BYTES);
+
+        byteArrayOutputStream.writeTo(target);
+
+        assertFalse(target.closed);
+        assertEquals(new String(BYTES), target.toString());
+        assertEquals(0, byteArrayOutputStream.toByteArray().length);
+    }
+
+    @DisplayName("Test reset(), keeps the grown array for the next use")
+    @Test
+    void testReset() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(2)) {
+            byteArrayOutputStream.write(BYTES);
+            int grownSize = byteArrayOutputStream.getBufferSize();
+
+            byteArrayOutputStream.reset();
+            byteArrayOutputStream.write(BYTES, 0, 4);
+
+            assertEquals(grownSize, byteArrayOutputStream.getBufferSize());
+            assertEquals("This", new String(byteArrayOutputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test reset(), shrinks to the high-water mark after trimAfter small uses in a row")
+    @Test
+    void testResetTrims() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(2)) {
+            byteArrayOutputStream.setTrimAfter(2);
+            byteArrayOutputStream.write(BYTES);
+            byteArrayOutputStream.reset();
+
+            byteArrayOutputStream.write(BYTES, 0, 3);
+            byteArrayOutputStream.reset();
+            assertEquals(17, byteArrayOutputStream.getBufferSize());
+
+            byteArrayOutputStream.write(BYTES, 0, 4);
+            byteArrayOutputStream.reset();
+            assertEquals(4, byteArrayOutputStream.getBufferSize());
+        }
+    }
+
+    @DisplayName("Test setTrimAfter(), RuntimeException is thrown when uses are less than 0")
+    @Test
+    void testSetTrimAfterThrowsRuntimeException() {
+        assertThrows(RuntimeException.class, () -> byteArrayOutputStream.setTrimAfter(-1));
+    }
+
+    @DisplayName("Test write(byte[], off, len), a large write grows the array once to the geometric capacity")
+    @Test
+    void testWriteWithThreeParametersGrowsOnce() throws IOException {
+        var metrics = new CountingStreamMetrics();
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(2)) {
+            byteArrayOutputStream.setMetrics(metrics);
+            byteArrayOutputStream.write(BYTES[0]);
+            byteArrayOutputStream.write(BYTES, 1, BYTES.length - 1);
+
+            // 2 -> 4 -> 7 -> 11 -> 17 in one step
+            assertEquals(17, byteArrayOutputStream.getBufferSize());
+            assertEquals(1, metrics.grows());
+            assertEquals(1, metrics.grownBytesCopied());
+            assertEquals(new String(BYTES), new String(byteArrayOutputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test ensureCapacity(), allocates the exact size once and writes up to it do not grow")
+    @Test
+    void testEnsureCapacity() throws IOException {
+        var metrics = new CountingStreamMetrics();
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(2)) {
+            byteArrayOutputStream.setMetrics(metrics);
+            byteArrayOutputStream.ensureCapacity(BYTES.length * 2);
+            byteArrayOutputStream.write(BYTES);
+            byteArrayOutputStream.write(BYTES);
+            byteArrayOutputStream.ensureCapacity(4);
+
+            assertEquals(BYTES.length * 2, byteArrayOutputStream.getBufferSize());
+            assertEquals(1, metrics.grows());
+        }
+    }
+
+    @DisplayName("Test setSizeHint(), the first growth within the hint goes straight to it")
+    @Test
+    void testSizeHint() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(2, GrowthPolicy.exact())) {
+            byteArrayOutputStream.setSizeHint(20);
+            assertEquals(2, byteArrayOutputStream.getBufferSize());
+
+            byteArrayOutputStream.write(BYTES);
+            assertEquals(20, byteArrayOutputStream.getBufferSize());
+
+            byteArrayOutputStream.write(BYTES);
+            assertEquals(24, byteArrayOutputStream.getBufferSize());
+        }
+    }
+
+    @DisplayName("Test position(long), seeks back and overwrites without changing the size")
+    @Test
+    void testPositionSeekBackAndOverwrite() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(2)) {
+            byteArrayOutputStream.write(BYTES);
+
+            byteArrayOutputStream.position(8);
+            byteArrayOutputStream.write("TRUE".getBytes());
+            byteArrayOutputStream.position(0).write('t');
+
+            assertEquals(1, byteArrayOutputStream.position());
+            assertEquals(BYTES.length, byteArrayOutputStream.size());
+            assertEquals("this is TRUE", new String(byteArrayOutputStream.toByteArray()));
+
+            byteArrayOutputStream.position(BYTES.length);
+            byteArrayOutputStream.write('!');
+            assertEquals("this is TRUE!", new String(byteArrayOutputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test truncate(), drops the tail, writing past the end fills the gap with zeros")
+    @Test
+    void testTruncateAndWritePastEnd() throws IOException {
+        try (var byteArrayOutputStream = new ByteArrayOutputStream(16)) {
+            byteArrayOutputStream.write(BYTES);
+
+            byteArrayOutputStream.truncate(4);
+            assertEquals(4, byteArrayOutputStream.position());
+            assertEquals(4, byteArrayOutputStream.size());
+
+            byteArrayOutputStream.position(6);
+            byteArrayOutputStream.writeShort(0x2121);
+
+            assertEquals("This\0\0!!", new String(byteArrayOutputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test position(long), IllegalArgumentException is thrown when (newPosition < 0)")
+    @Test
+    void testPositionThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> byteArrayOutputStream.position(-1));
+    }
+
+    @DisplayName("Test read(ByteBuffer), NonReadableChannelException is thrown")
+    @Test
+    void testReadThrowsNonReadableChannelException() {
+        assertThrows(NonReadableChannelException.class, () -> byteArrayOutputStream.read(ByteBuffer.allocate(1)));
+    }
+}
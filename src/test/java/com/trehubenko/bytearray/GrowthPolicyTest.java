@@ -0,0 +1,59 @@
+package com.trehubenko.bytearray;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrowthPolicyTest {
+
+    @DisplayName("Test geometric(), steps by factor and adds 1 until the required capacity fits")
+    @Test
+    void testGeometric() {
+        var policy = GrowthPolicy.geometric(1.5);
+
+        assertEquals(4, policy.newCapacity(2, 3));
+        assertEquals(17, policy.newCapacity(2, 12));
+        assertEquals(1, policy.newCapacity(0, 1));
+    }
+
+    @DisplayName("Test geometric(), RuntimeException is thrown when factor is not greater than 1")
+    @Test
+    void testGeometricThrowsRuntimeException() {
+        assertThrows(RuntimeException.class, () -> GrowthPolicy.geometric(1));
+    }
+
+    @DisplayName("Test exact(), returns the required capacity")
+    @Test
+    void testExact() {
+        assertEquals(100, GrowthPolicy.exact().newCapacity(8, 100));
+    }
+
+    @DisplayName("Test powerOfTwo(), rounds to powers of two below half a region and fills whole regions above")
+    @Test
+    void testPowerOfTwo() {
+        var policy = GrowthPolicy.powerOfTwo(1024);
+
+        assertEquals(8, policy.newCapacity(4, 5));
+        assertEquals(256, policy.newCapacity(128, 129));
+        assertEquals(1024 - 16, policy.newCapacity(256, 300));
+        assertEquals(1024 - 16, policy.newCapacity(256, 600));
+        assertEquals(3 * 1024 - 16, policy.newCapacity(1024 - 16, 2100));
+    }
+
+    @DisplayName("Test powerOfTwo(), RuntimeException is thrown when region size is not a power of two")
+    @Test
+    void testPowerOfTwoThrowsRuntimeException() {
+        assertThrows(RuntimeException.class, () -> GrowthPolicy.powerOfTwo(1000));
+    }
+
+    @DisplayName("Test cappedLinear(), grows by half the capacity up to the increment")
+    @Test
+    void testCappedLinear() {
+        var policy = GrowthPolicy.cappedLinear(100);
+
+        assertEquals(16, policy.newCapacity(10, 11));
+        assertEquals(1100, policy.newCapacity(1000, 1001));
+        assertEquals(1300, policy.newCapacity(1000, 1250));
+    }
+}
@@ -0,0 +1,86 @@
+package com.trehubenko.bytearray;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedByteArrayInputStreamTest {
+    private final static byte[] BYTES = ("This is true").getBytes();
+
+    private static SegmentedByteArrayInputStream newInputStream() throws IOException {
+        try (var outputStream = new SegmentedByteArrayOutputStream(5)) {
+            outputStream.write(BYTES);
+            return outputStream.toInputStream();
+        }
+    }
+
+    @DisplayName("Test read(), reads across segments and returns -1 at the end")
+    @Test
+    void testReadByOneByte() throws IOException {
+        var inputStream = newInputStream();
+        var builder = new StringBuilder();
+        int value;
+        while ((value = inputStream.read()) != -1) {
+            builder.append((char) value);
+        }
+
+        assertEquals(new String(BYTES), builder.toString());
+        assertEquals(BYTES.length, inputStream.position());
+    }
+
+    @DisplayName("Test read(byte[], off, len), copies across segment boundaries")
+    @Test
+    void testReadWithThreeParameters() throws IOException {
+        var inputStream = newInputStream();
+        byte[] b = new byte[8];
+
+        assertEquals(7, inputStream.read(b, 1, 7));
+        assertEquals("This is", new String(b, 1, 7));
+        assertEquals(5, inputStream.read(b, 0, 8));
+        assertEquals(" true", new String(b, 0, 5));
+        assertEquals(-1, inputStream.read(b, 0, 8));
+    }
+
+    @DisplayName("Test read(byte[], off, len), IndexOutOfBoundsException is thrown when (off < 0)")
+    @Test
+    void testReadWithThreeParametersThrowsIndexOutOfBoundsException() throws IOException {
+        var inputStream = newInputStream();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> inputStream.read(new byte[4], -1, 2));
+    }
+
+    @DisplayName("Test skip(), skips across segments and keeps the long position")
+    @Test
+    void testSkip() throws IOException {
+        var inputStream = newInputStream();
+
+        assertEquals(8, inputStream.skip(8));
+        assertEquals(8, inputStream.position());
+        assertEquals(4, inputStream.available());
+        assertEquals("true", new String(inputStream.readAllBytes()));
+        assertEquals(0, inputStream.skip(1));
+    }
+
+    @DisplayName("Test transferTo(), writes the remaining bytes of every segment")
+    @Test
+    void testTransferTo() throws IOException {
+        var inputStream = newInputStream();
+        inputStream.read();
+        var target = new java.io.ByteArrayOutputStream();
+
+        assertEquals(11, inputStream.transferTo(target));
+        assertEquals("his is true", target.toString());
+    }
+
+    @DisplayName("Test read(), IOException is thrown when SegmentedByteArrayInputStream is closed")
+    @Test
+    void testReadThrowsIOException() throws IOException {
+        var inputStream = newInputStream();
+        inputStream.close();
+
+        assertThrows(IOException.class, inputStream::read, "InputStream is closed");
+    }
+}
@@ -0,0 +1,126 @@
+package com.trehubenko.bytearray;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedByteArrayOutputStreamTest {
+    private final static byte[] BYTES = ("This is true").getBytes();
+
+    @DisplayName("Test write(), IOException thrown when SegmentedByteArrayOutputStream is closed")
+    @Test
+    void testWriteByOneByteThrowsIOException() {
+        var outputStream = new SegmentedByteArrayOutputStream();
+        outputStream.close();
+
+        assertThrows(IOException.class, () -> outputStream.write(10), "OutputStream is closed");
+    }
+
+    @DisplayName("Test write(), adds a new segment when the current one is full")
+    @Test
+    void testWriteByOneByteAddsSegment() throws IOException {
+        try (var outputStream = new SegmentedByteArrayOutputStream(2)) {
+
+            outputStream.write(BYTES[0]);
+            outputStream.write(BYTES[1]);
+
+            assertEquals(1, outputStream.getSegmentCount());
+
+            outputStream.write(BYTES[2]);
+
+            assertEquals(2, outputStream.getSegmentCount());
+            assertEquals(3, outputStream.size());
+            assertEquals("Thi", new String(outputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test write(byte[], off, len), a write bigger then a segment is spread over fixed size segments")
+    @Test
+    void testWriteWithThreeParametersFixedSegments() throws IOException {
+        try (var outputStream = new SegmentedByteArrayOutputStream(5)) {
+
+            outputStream.write(BYTES, 0, BYTES.length);
+
+            assertEquals(3, outputStream.getSegmentCount());
+            assertEquals(5, outputStream.getCurrentSegmentSize());
+            assertEquals(new String(BYTES), new String(outputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test write(byte[], off, len), segments grow geometrically")
+    @Test
+    void testWriteWithThreeParametersGeometricSegments() throws IOException {
+        try (var outputStream = new SegmentedByteArrayOutputStream(2, 2)) {
+
+            outputStream.write(BYTES, 0, BYTES.length);
+
+            assertEquals(3, outputStream.getSegmentCount());
+            assertEquals(8, outputStream.getCurrentSegmentSize());
+            assertEquals(new String(BYTES), new String(outputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test write(byte[], off, len), IndexOutOfBoundsException is thrown when (len == 0)")
+    @Test
+    void testWriteWithThreeParametersThrowsIndexOutOfBoundsExceptionWhenLenEqualsNil() {
+        var outputStream = new SegmentedByteArrayOutputStream();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> outputStream.write(BYTES, 0, 0));
+    }
+
+    @DisplayName("Test writeTo(), writes every segment in order and leaves the target open")
+    @Test
+    void testWriteTo() throws IOException {
+        try (var outputStream = new SegmentedByteArrayOutputStream(3)) {
+            outputStream.write(BYTES);
+            var target = new java.io.ByteArrayOutputStream();
+
+            outputStream.writeTo(target);
+            target.write('!');
+
+            assertEquals(new String(BYTES) + "!", target.toString());
+        }
+    }
+
+    @DisplayName("Test writeTo(FileChannel), gathers every segment into the file")
+    @Test
+    void testWriteToFileChannel() throws IOException {
+        Path file = Files.createTempFile("segments", ".txt");
+        try (var outputStream = new SegmentedByteArrayOutputStream(2, 2);
+             var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            outputStream.write(BYTES);
+
+            assertEquals(BYTES.length, outputStream.writeTo(channel));
+        } finally {
+            assertEquals(new String(BYTES), Files.readString(file));
+            Files.delete(file);
+        }
+    }
+
+    @DisplayName("Test toInputStream(), reads the segments without copying, later writes are not visible")
+    @Test
+    void testToInputStream() throws IOException {
+        try (var outputStream = new SegmentedByteArrayOutputStream(5)) {
+            outputStream.write(BYTES);
+            var inputStream = outputStream.toInputStream();
+            outputStream.write('!');
+
+            assertEquals(BYTES.length, inputStream.size());
+            assertEquals(new String(BYTES), new String(inputStream.readAllBytes()));
+            assertEquals(13, outputStream.size());
+        }
+    }
+
+    @DisplayName("Test constructor, RuntimeException is thrown when segment capacity is 0")
+    @Test
+    void testConstructorThrowsRuntimeException() {
+        assertThrows(RuntimeException.class, () -> new SegmentedByteArrayOutputStream(0));
+    }
+}
@@ -0,0 +1,94 @@
+package com.trehubenko.bytearray;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillingByteArrayOutputStreamTest {
+    private final static byte[] BYTES = ("This is true").getBytes();
+
+    @DisplayName("Test write(), stays in memory up to the threshold")
+    @Test
+    void testWriteStaysInMemory() throws IOException {
+        try (var outputStream = new SpillingByteArrayOutputStream(BYTES.length)) {
+            outputStream.write(BYTES);
+
+            assertFalse(outputStream.isSpilled());
+            assertEquals(BYTES.length, outputStream.size());
+            assertEquals(new String(BYTES), new String(outputStream.toInputStream().readAllBytes()));
+        }
+    }
+
+    @DisplayName("Test write(), spills to a temp file past the threshold and keeps appending there")
+    @Test
+    void testWriteSpillsToFile() throws IOException {
+        Path directory = Files.createTempDirectory("spill");
+        try (var outputStream = new SpillingByteArrayOutputStream(5, directory)) {
+            outputStream.write(BYTES, 0, 5);
+            assertFalse(outputStream.isSpilled());
+
+            outputStream.write(BYTES[5]);
+            outputStream.write(BYTES, 6, 6);
+
+            assertTrue(outputStream.isSpilled());
+            assertEquals(BYTES.length, outputStream.size());
+            try (var files = Files.list(directory)) {
+                assertEquals(1, files.count());
+            }
+            try (var inputStream = outputStream.toInputStream()) {
+                assertEquals(new String(BYTES), new String(inputStream.readAllBytes()));
+            }
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        Files.delete(directory);
+    }
+
+    @DisplayName("Test isSpilled(), stays false after close() when the content never left memory")
+    @Test
+    void testIsSpilledAfterClose() throws IOException {
+        var outputStream = new SpillingByteArrayOutputStream(BYTES.length);
+        outputStream.write(BYTES);
+
+        outputStream.close();
+
+        assertFalse(outputStream.isSpilled());
+    }
+
+    @DisplayName("Test writeTo(), writes the content in both modes and leaves the target open")
+    @Test
+    void testWriteTo() throws IOException {
+        try (var outputStream = new SpillingByteArrayOutputStream(4)) {
+            outputStream.write(BYTES, 0, 4);
+            var target = new java.io.ByteArrayOutputStream();
+            outputStream.writeTo(target);
+
+            outputStream.write(BYTES, 4, 8);
+            outputStream.writeTo(target);
+
+            assertEquals("This" + new String(BYTES), target.toString());
+        }
+    }
+
+    @DisplayName("Test write(), IOException is thrown when SpillingByteArrayOutputStream is closed")
+    @Test
+    void testWriteThrowsIOException() throws IOException {
+        var outputStream = new SpillingByteArrayOutputStream(0);
+        outputStream.write(10);
+        outputStream.close();
+
+        assertThrows(IOException.class, () -> outputStream.write(10), "OutputStream is closed");
+    }
+
+    @DisplayName("Test constructor, RuntimeException is thrown when threshold is less than 0")
+    @Test
+    void testConstructorThrowsRuntimeException() {
+        assertThrows(RuntimeException.class, () -> new SpillingByteArrayOutputStream(-1));
+    }
+}
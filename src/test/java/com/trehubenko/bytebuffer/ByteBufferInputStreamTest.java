@@ -0,0 +1,26 @@
+package com.trehubenko.bytebuffer;
+
+import com.trehubenko.AbstractInputStreamTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ByteBufferInputStreamTest extends AbstractInputStreamTest {
+
+    public ByteBufferInputStreamTest() {
+        inputStream = new ByteBufferInputStream(ByteBuffer.allocateDirect(BYTES.length).put(BYTES).flip());
+    }
+
+    @DisplayName("Test skip(), skips without reading and does not go past the end")
+    @Test
+    void testSkip() throws IOException {
+        assertEquals(5, inputStream.skip(5));
+        assertEquals('i', (char) inputStream.read());
+        assertEquals(6, inputStream.skip(100));
+        assertEquals(0, inputStream.available());
+    }
+}
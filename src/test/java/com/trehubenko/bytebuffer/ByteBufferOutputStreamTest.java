@@ -0,0 +1,103 @@
+package com.trehubenko.bytebuffer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteBufferOutputStreamTest {
+    private final static byte[] BYTES = ("This is true").getBytes();
+    private final static String FILE_NAME = "direct.txt";
+
+    @AfterEach
+    public void removeFile() {
+        new File(FILE_NAME).delete();
+    }
+
+    @DisplayName("Test write(), IOException thrown when ByteBufferOutputStream is closed")
+    @Test
+    void testWriteByOneByteThrowsIOException() {
+        var outputStream = new ByteBufferOutputStream();
+        outputStream.close();
+
+        assertThrows(IOException.class, () -> outputStream.write(10), "OutputStream is closed");
+    }
+
+    @DisplayName("Test write(), ByteBufferOutputStream grows its direct buffer when it is full")
+    @Test
+    void testWriteByOneByteIncreaseBuffer() throws IOException {
+        try (var outputStream = new ByteBufferOutputStream(2)) {
+            outputStream.write(BYTES[0]);
+            outputStream.write(BYTES[1]);
+
+            assertEquals(2, outputStream.getBufferSize());
+
+            outputStream.write(BYTES[2]);
+
+            assertEquals(4, outputStream.getBufferSize());
+            assertEquals("Thi", new String(outputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test write(byte[], off, len), grows once to fit a write bigger then the buffer")
+    @Test
+    void testWriteWithThreeParametersIncreaseBuffer() throws IOException {
+        try (var outputStream = new ByteBufferOutputStream(2)) {
+            outputStream.write(BYTES, 0, BYTES.length);
+
+            assertEquals(12, outputStream.getBufferSize());
+            assertEquals(12, outputStream.size());
+            assertEquals(new String(BYTES), new String(outputStream.toByteArray()));
+        }
+    }
+
+    @DisplayName("Test toByteBuffer(), returns a read-only direct view of the written bytes")
+    @Test
+    void testToByteBuffer() throws IOException {
+        try (var outputStream = new ByteBufferOutputStream()) {
+            outputStream.write(BYTES);
+
+            ByteBuffer view = outputStream.toByteBuffer();
+
+            assertTrue(view.isReadOnly());
+            assertTrue(view.isDirect());
+            assertEquals(BYTES.length, view.remaining());
+            assertEquals(ByteBuffer.wrap(BYTES), view);
+        }
+    }
+
+    @DisplayName("Test writeTo(WritableByteChannel), writes the direct buffer straight to a FileChannel")
+    @Test
+    void testWriteToChannel() throws IOException {
+        try (var outputStream = new ByteBufferOutputStream();
+             var channel = FileChannel.open(Path.of(FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            outputStream.write(BYTES);
+
+            outputStream.writeTo(channel);
+
+            assertEquals(12, new File(FILE_NAME).length());
+        }
+    }
+
+    @DisplayName("Test writeTo(OutputStream), copies the written bytes to a heap stream")
+    @Test
+    void testWriteToOutputStream() throws IOException {
+        try (var outputStream = new ByteBufferOutputStream()) {
+            outputStream.write(BYTES);
+            var target = new ByteArrayOutputStream();
+
+            outputStream.writeTo(target);
+
+            assertArrayEquals(BYTES, target.toByteArray());
+        }
+    }
+}
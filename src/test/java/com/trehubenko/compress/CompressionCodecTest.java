@@ -0,0 +1,78 @@
+package com.trehubenko.compress;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionCodecTest {
+
+    private final static byte[] BYTES = ("This is true, this is true, this is true").getBytes();
+
+    @DisplayName("Test release(), a released compressor is reset and handed out again")
+    @Test
+    void testCompressorIsReused() throws IOException {
+        var codec = new GzipCodec();
+        Compressor compressor = codec.acquireCompressor();
+        byte[] first = compress(compressor);
+        codec.release(compressor);
+
+        Compressor reused = codec.acquireCompressor();
+        assertSame(compressor, reused);
+        assertArrayEquals(first, compress(reused));
+        assertNotSame(reused, codec.acquireCompressor());
+    }
+
+    @DisplayName("Test release(), instances of another codec are not pooled")
+    @Test
+    void testForeignInstancesAreNotPooled() {
+        var codec = new DeflateCodec();
+        var other = new DeflateCodec();
+        Decompressor decompressor = other.acquireDecompressor();
+        codec.release(decompressor);
+
+        assertNotSame(decompressor, codec.acquireDecompressor());
+    }
+
+    @DisplayName("Test decompress(), input is handed over byte by byte")
+    @Test
+    void testDecompressByteByByte() throws IOException {
+        for (CompressionCodec codec : new CompressionCodec[]{new DeflateCodec(), new GzipCodec(9)}) {
+            byte[] compressed = compress(codec.acquireCompressor());
+            Decompressor decompressor = codec.acquireDecompressor();
+            byte[] result = new byte[BYTES.length + 1];
+            int count = 0;
+            int offset = 0;
+            while (!decompressor.finished()) {
+                if (decompressor.needsInput()) {
+                    decompressor.setInput(compressed, offset++, 1);
+                }
+                count += decompressor.decompress(result, count, result.length - count);
+            }
+
+            assertEquals(compressed.length, offset);
+            assertEquals(BYTES.length, count);
+            assertArrayEquals(BYTES, Arrays.copyOf(result, count));
+        }
+    }
+
+    @DisplayName("Test constructor, invalid level throws")
+    @Test
+    void testInvalidLevel() {
+        assertThrows(RuntimeException.class, () -> new GzipCodec(10));
+    }
+
+    private static byte[] compress(Compressor compressor) throws IOException {
+        byte[] result = new byte[256];
+        compressor.setInput(BYTES, 0, BYTES.length);
+        compressor.finish();
+        int count = 0;
+        while (!compressor.finished()) {
+            count += compressor.compress(result, count, 1);
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,53 @@
+package com.trehubenko.metrics;
+
+import com.trehubenko.buffered.BufferedInputStream;
+import com.trehubenko.bytearray.ByteArrayOutputStream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrStreamMetricsTest {
+
+    @DisplayName("Test JfrStreamMetrics, fill and grow events are recorded when enabled")
+    @Test
+    void testEventsAreRecorded() throws IOException {
+        Path file = Files.createTempFile("streams", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("com.trehubenko.StreamIo");
+            recording.enable("com.trehubenko.BufferGrow");
+            recording.start();
+
+            try (var inputStream = new BufferedInputStream(4, new ByteArrayInputStream(new byte[6]))) {
+                inputStream.setMetrics(new JfrStreamMetrics("input"));
+                while (inputStream.read() != -1) {
+                }
+            }
+            try (var outputStream = new ByteArrayOutputStream(1)) {
+                outputStream.setMetrics(new JfrStreamMetrics("output"));
+                outputStream.write(new byte[3]);
+            }
+
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.trehubenko.StreamIo")
+                    && event.getString("stream").equals("input") && event.getString("operation").equals("fill")
+                    && event.getLong("bytes") == 4));
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.trehubenko.BufferGrow")
+                    && event.getInt("oldCapacity") == 1 && event.getInt("newCapacity") == 4));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.trehubenko.parallel;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeSpliteratorTest {
+
+    private final static byte[] LINES = lines(10_000);
+
+    @DisplayName("Test ranges(), every range ends after a delimiter and the ranges cover the array in order")
+    @Test
+    void testArrayRanges() {
+        List<byte[]> ranges = new ByteArraySource(LINES).ranges((byte) '\n', 1000)
+                .map(RangeSpliteratorTest::readAll)
+                .toList();
+
+        assertTrue(ranges.size() > 10);
+        var concatenated = new ByteArrayOutputStream();
+        for (byte[] range : ranges) {
+            assertEquals('\n', range[range.length - 1]);
+            assertTrue(range.length <= 1000 + 32);
+            concatenated.writeBytes(range);
+        }
+        assertArrayEquals(LINES, concatenated.toByteArray());
+    }
+
+    @DisplayName("Test ranges(), records counted in parallel match the sequential count")
+    @Test
+    void testParallelCount() {
+        long lines = new ByteArraySource(LINES).ranges((byte) '\n', 4096)
+                .mapToLong(range -> countLines(readAll(range)))
+                .sum();
+
+        assertEquals(10_000, lines);
+    }
+
+    @DisplayName("Test trySplit(), does not cut when there is no delimiter after the middle")
+    @Test
+    void testNoDelimiter() {
+        byte[] source = new byte[100];
+        var spliterator = new RangeSpliterator(new ByteArraySource(source), (byte) '\n', 10);
+
+        assertNull(spliterator.trySplit());
+        assertEquals(10, spliterator.estimateSize());
+        List<byte[]> ranges = new ArrayList<>();
+        spliterator.forEachRemaining(range -> ranges.add(readAll(range)));
+        assertEquals(1, ranges.size());
+        assertEquals(100, ranges.get(0).length);
+    }
+
+    @DisplayName("Test MappedFileSource, ranges of a file are mapped and aligned like array ranges")
+    @Test
+    void testFileRanges() throws IOException {
+        Path file = Files.createTempFile("ranges", ".txt");
+        try {
+            Files.write(file, LINES);
+            try (var source = new MappedFileSource(file)) {
+                assertEquals(LINES.length, source.size());
+                assertEquals(LINES.length - 1, source.indexOf((byte) '\n', LINES.length - 1, LINES.length));
+
+                String content = source.ranges((byte) '\n', 10_000)
+                        .map(range -> new String(readAll(range)))
+                        .collect(Collectors.joining());
+                assertEquals(new String(LINES), content);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static byte[] readAll(InputStream inputStream) {
+        try {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long countLines(byte[] bytes) {
+        long lines = 0;
+        for (byte b : bytes) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static byte[] lines(int count) {
+        var lines = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            lines.append("line ").append(i).append(" ").append("x".repeat(i % 17)).append('\n');
+        }
+        return lines.toString().getBytes();
+    }
+}
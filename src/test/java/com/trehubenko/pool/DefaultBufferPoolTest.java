@@ -0,0 +1,73 @@
+package com.trehubenko.pool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultBufferPoolTest {
+
+    private final DefaultBufferPool bufferPool = new DefaultBufferPool();
+
+    @DisplayName("Test acquire(), capacity is rounded up to the size class")
+    @Test
+    void testAcquireRoundsUpToSizeClass() {
+        assertEquals(512, bufferPool.acquire(3).length);
+        assertEquals(8 * 1024, bufferPool.acquire(8 * 1024).length);
+        assertEquals(16 * 1024, bufferPool.acquire(8 * 1024 + 1).length);
+        assertEquals(3, bufferPool.statistics().misses());
+    }
+
+    @DisplayName("Test acquire(), the same thread gets back its released buffer from the thread-local cache")
+    @Test
+    void testAcquireHitsThreadLocalCache() {
+        byte[] buffer = bufferPool.acquire(8 * 1024);
+        bufferPool.release(buffer);
+
+        assertSame(buffer, bufferPool.acquire(8 * 1024));
+        assertEquals(1, bufferPool.statistics().threadLocalHits());
+    }
+
+    @DisplayName("Test acquire(), another thread gets a released buffer from the shared pool")
+    @Test
+    void testAcquireHitsSharedPool() throws InterruptedException {
+        byte[] first = bufferPool.acquire(1024);
+        byte[] second = bufferPool.acquire(1024);
+        bufferPool.release(first);
+        bufferPool.release(second);
+
+        var acquired = new AtomicReference<byte[]>();
+        Thread thread = new Thread(() -> acquired.set(bufferPool.acquire(1024)));
+        thread.start();
+        thread.join();
+
+        assertSame(second, acquired.get());
+        assertEquals(1, bufferPool.statistics().sharedHits());
+        assertEquals(1.0 / 3, bufferPool.statistics().hitRatio());
+    }
+
+    @DisplayName("Test release(), buffers bigger then the largest size class are not pooled")
+    @Test
+    void testReleaseDiscardsOversizedBuffer() {
+        byte[] buffer = bufferPool.acquire(2 * 1024 * 1024);
+        bufferPool.release(buffer);
+
+        assertNotSame(buffer, bufferPool.acquire(2 * 1024 * 1024));
+        assertEquals(1, bufferPool.statistics().discards());
+        assertEquals(2, bufferPool.statistics().misses());
+    }
+
+    @DisplayName("Test release(), buffers are discarded when the shared pool is full")
+    @Test
+    void testReleaseDiscardsWhenSharedPoolIsFull() {
+        var pool = new DefaultBufferPool(0);
+        pool.release(pool.acquire(1024));
+        pool.release(pool.acquire(1024));
+        pool.release(new byte[1024]);
+
+        assertEquals(3, pool.statistics().releases());
+        assertEquals(1, pool.statistics().discards());
+    }
+}
@@ -0,0 +1,92 @@
+package com.trehubenko.primitive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitivesTest {
+
+    @DisplayName("Test putInt()/putIntLE(), values are stored in big and little endian order")
+    @Test
+    void testPutIntByteOrder() {
+        byte[] b = new byte[8];
+
+        Primitives.putInt(b, 0, 0x01020304);
+        Primitives.putIntLE(b, 4, 0x01020304);
+
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 4, 3, 2, 1}, b);
+        assertEquals(0x01020304, Primitives.getInt(b, 0));
+        assertEquals(0x01020304, Primitives.getIntLE(b, 4));
+    }
+
+    @DisplayName("Test putVarLong(), values are encoded as LEB128")
+    @Test
+    void testPutVarLong() throws IOException {
+        byte[] b = new byte[Primitives.MAX_VAR_LONG_SIZE];
+
+        assertEquals(2, Primitives.putVarLong(b, 0, 300));
+        assertEquals((byte) 0xAC, b[0]);
+        assertEquals(0x02, b[1]);
+        assertEquals(2, Primitives.varLongLength(b, 0, b.length));
+        assertEquals(300, Primitives.getVarLong(b, 0));
+
+        assertEquals(10, Primitives.putVarLong(b, 0, -1));
+        assertEquals(10, Primitives.varLongSize(-1));
+        assertEquals(-1, Primitives.getVarLong(b, 0));
+    }
+
+    @DisplayName("Test varLongSize(), matches the encoded length")
+    @Test
+    void testVarLongSize() {
+        byte[] b = new byte[Primitives.MAX_VAR_LONG_SIZE];
+        for (long value : new long[]{0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(Primitives.putVarLong(b, 0, value), Primitives.varLongSize(value));
+        }
+    }
+
+    @DisplayName("Test varLongLength(), returns -1 for a truncated varint and throws for a too long one")
+    @Test
+    void testVarLongLength() {
+        byte[] b = new byte[11];
+        Arrays.fill(b, (byte) 0x80);
+
+        assertDoesNotThrow(() -> assertEquals(-1, Primitives.varLongLength(b, 0, 5)));
+        assertThrows(IOException.class, () -> Primitives.varLongLength(b, 0, b.length));
+    }
+
+    @DisplayName("Test encodeZigZag(), small negative numbers get small codes")
+    @Test
+    void testZigZag() {
+        assertEquals(0, Primitives.encodeZigZag(0));
+        assertEquals(1, Primitives.encodeZigZag(-1));
+        assertEquals(2, Primitives.encodeZigZag(1));
+        assertEquals(Integer.MIN_VALUE, Primitives.decodeZigZag(Primitives.encodeZigZag(Integer.MIN_VALUE)));
+        assertEquals(Long.MIN_VALUE, Primitives.decodeZigZag(Primitives.encodeZigZag(Long.MIN_VALUE)));
+    }
+
+    @DisplayName("Test indexOf(), finds the first match at every position of a word and in the tail")
+    @Test
+    void testIndexOf() {
+        for (int length = 0; length < 20; length++) {
+            for (int match = 0; match < length; match++) {
+                byte[] b = new byte[length];
+                Arrays.fill(b, (byte) 0x8A);
+                b[match] = (byte) 0x0A;
+                if (match + 1 < length) {
+                    b[match + 1] = (byte) 0x0A;
+                }
+
+                assertEquals(match, Primitives.indexOf(b, 0, length, (byte) 0x0A));
+                assertEquals(-1, Primitives.indexOf(b, 0, match, (byte) 0x0A));
+            }
+        }
+        byte[] negative = {1, 2, 3, 4, 5, 6, 7, 8, -1, 0};
+        assertEquals(8, Primitives.indexOf(negative, 0, negative.length, (byte) -1));
+        assertEquals(9, Primitives.indexOf(negative, 0, negative.length, (byte) 0));
+        assertEquals(-1, Primitives.indexOf(negative, 2, 8, (byte) 1));
+    }
+}